@@ -37,6 +37,7 @@ android {
 }
 
 dependencies {
+    implementation(project(":engine"))
     implementation("androidx.appcompat:appcompat:1.6.1")
     implementation("com.google.android.material:material:1.10.0")
     implementation("androidx.constraintlayout:constraintlayout:2.1.4")
@@ -1,46 +1,99 @@
 package com.example.checkers;
 
 import android.util.Log;
+
+import com.example.checkers.engine.Bitbase;
+import com.example.checkers.engine.Engine;
+import com.example.checkers.engine.Move;
+import com.example.checkers.engine.OpeningBook;
+import com.example.checkers.engine.Rules;
+import com.example.checkers.engine.SearchStats;
+import com.example.checkers.engine.TimeManager;
+
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
 /**
- * Основной класс логики игры в шашки.
+ * Основной класс логики игры в шашки: состояние партии для интерфейса (ходы человека по одному прыжку,
+ * продолжение цепочки взятий, победитель) и тонкий адаптер к движку {@link Engine}, который ищет ходы ИИ
+ * в фоновом потоке. Правила и генерация ходов — в {@link Rules}.
  */
 public class CheckersGame {
     private static final String TAG = "CheckersGame";
 
     // --- Типы шашек и игроков ---
-    public static final int EMPTY = 0;
-    public static final int BLACK_PIECE = 1;
-    public static final int WHITE_PIECE = 2;
-    public static final int BLACK_KING = 3;
-    public static final int WHITE_KING = 4;
-    public static final int BLACK_PLAYER = 1;
-    public static final int WHITE_PLAYER = 2;
+    public static final int EMPTY = Rules.EMPTY;
+    public static final int BLACK_PIECE = Rules.BLACK_PIECE;
+    public static final int WHITE_PIECE = Rules.WHITE_PIECE;
+    public static final int BLACK_KING = Rules.BLACK_KING;
+    public static final int WHITE_KING = Rules.WHITE_KING;
+    public static final int BLACK_PLAYER = Rules.BLACK_PLAYER;
+    public static final int WHITE_PLAYER = Rules.WHITE_PLAYER;
 
     // --- Уровни сложности ИИ ---
     public static final int DIFFICULTY_EASY = 0;
     public static final int DIFFICULTY_MEDIUM = 1;
     public static final int DIFFICULTY_HARD = 2;
 
+    // --- Режимы многопоточного поиска ИИ ---
+    public static final int SEARCH_MODE_ROOT_SPLIT = Engine.MODE_ROOT_SPLIT;
+    public static final int SEARCH_MODE_LAZY_SMP = Engine.MODE_LAZY_SMP;
+
     // --- Состояние игры ---
     private int[][] board;
     private int currentPlayer;
     private boolean mustContinueJump;
     private int continueJumpRow = -1;
     private int continueJumpCol = -1;
+    private boolean playingSequence;   // ИИ играет цепочку взятий целиком, продолжение не откладывается
 
     // --- Настройки ИИ ---
     private int aiPlayer = EMPTY;
     private int difficulty = DIFFICULTY_EASY;
     private Random random = new Random();
 
+    private static final int MEDIUM_MAX_DEPTH = 3;
+
+    // --- Поиск ИИ и контроль времени ---
+    private static final int DEFAULT_HASH_SIZE_MB = 8;
+    private int hashSizeMb = DEFAULT_HASH_SIZE_MB;
+    private int searchThreads = Runtime.getRuntime().availableProcessors();
+    private int searchMode = SEARCH_MODE_ROOT_SPLIT;
+    private boolean selectiveSearch = true;
+    private Engine searcher;
+    private Bitbase bitbase;
+    private OpeningBook openingBook;
+    private EngineExecutor engine;
+    private final android.os.Handler mainHandler = new android.os.Handler(android.os.Looper.getMainLooper());
+    private long timeLimitMs = -1;
+    private long aiTimeLeftMs = -1;
+
+    // --- Размышление ИИ во время хода человека ---
+    private boolean ponderingEnabled = true;
+    private int[][] ponderBoard;       // ожидаемая позиция после ответа человека (null — размышления нет)
+    private boolean ponderFinished;    // размышление закончилось само, результат в ponderResult
+    private boolean ponderHitWaiting;  // человек сделал ожидаемый ход, ждём окончания поиска
+    private Move ponderResult;
+    private List<Move> ponderCandidates;
+
     // --- Обратный вызов для обновления UI из MainActivity ---
     public interface OnGameUpdateListener {
         void onAImoveCompleted();
     }
+
+    /**
+     * Слушатель, которому, кроме окончания хода ИИ, нужна статистика поиска этого хода.
+     * onSearchStats вызывается в главном потоке перед onAImoveCompleted, только для ходов, найденных поиском
+     * (не для ходов по книге и не на лёгком уровне).
+     */
+    public interface OnSearchStatsListener extends OnGameUpdateListener {
+        void onSearchStats(SearchStats stats);
+    }
     private OnGameUpdateListener mainActivityCallback = null;
 
     /**
@@ -69,6 +122,96 @@ public class CheckersGame {
         this.mainActivityCallback = listener;
     }
 
+    /**
+     * Задаёт объём памяти под таблицу транспозиций ИИ (в мегабайтах).
+     */
+    public void setHashSize(int megabytes) {
+        this.hashSizeMb = megabytes;
+        this.searcher = null;
+    }
+
+    /**
+     * Задаёт число потоков поиска ИИ (1 — поиск без пула в вызывающем потоке).
+     */
+    public void setSearchThreads(int threads) {
+        this.searchThreads = Math.max(1, threads);
+        this.searcher = null;
+    }
+
+    /**
+     * Задаёт режим многопоточного поиска: SEARCH_MODE_ROOT_SPLIT или SEARCH_MODE_LAZY_SMP.
+     */
+    public void setSearchMode(int mode) {
+        this.searchMode = mode;
+        this.searcher = null;
+    }
+
+    /**
+     * Включает или выключает выборочный поиск ИИ (сокращения поздних ходов и отсечение у листьев).
+     * Выключенный даёт полный перебор на той же глубине — для проверки и сравнения.
+     */
+    public void setSelectiveSearch(boolean enabled) {
+        this.selectiveSearch = enabled;
+        if (searcher != null) {
+            searcher.setSelectiveSearch(enabled);
+        }
+    }
+
+    /**
+     * Подключает эндшпильную базу из файла, построенного BitbaseGenerator.
+     * Если файла нет или он повреждён, ИИ играет без базы.
+     */
+    public void setEndgameBitbase(File file) {
+        try {
+            this.bitbase = Bitbase.open(file);
+        } catch (IOException e) {
+            Log.e(TAG, "Cannot open endgame bitbase " + file, e);
+            this.bitbase = null;
+        }
+        Log.d(TAG, (bitbase != null) ? "Endgame bitbase loaded: up to " + bitbase.maxPieces() + " pieces"
+                : "Endgame bitbase not available");
+        this.searcher = null;
+    }
+
+    /**
+     * Подключает дебютную книгу из файла, построенного OpeningBookBuilder.
+     * Если файла нет или он повреждён, ИИ играет без книги.
+     */
+    public void setOpeningBook(File file) {
+        try {
+            this.openingBook = OpeningBook.open(file);
+        } catch (IOException e) {
+            Log.e(TAG, "Cannot open opening book " + file, e);
+            this.openingBook = null;
+        }
+        Log.d(TAG, (openingBook != null) ? "Opening book loaded: " + openingBook.size() + " moves"
+                : "Opening book not available");
+    }
+
+    /**
+     * Задаёт контроль времени партии (в миллисекундах, -1 — без ограничения).
+     */
+    public void setTimeControl(long timeLimitMs) {
+        this.timeLimitMs = timeLimitMs;
+    }
+
+    /**
+     * Включает или выключает размышление ИИ во время хода человека.
+     */
+    public void setPondering(boolean enabled) {
+        this.ponderingEnabled = enabled;
+        if (!enabled) {
+            stopPondering();
+        }
+    }
+
+    /**
+     * Сообщает ИИ, сколько времени осталось на его часах.
+     */
+    public void setAiTimeLeft(long aiTimeLeftMs) {
+        this.aiTimeLeftMs = aiTimeLeftMs;
+    }
+
     /**
      * Инициализирует начальную расстановку шашек на доске.
      */
@@ -90,6 +233,20 @@ public class CheckersGame {
         }
     }
 
+    /**
+     * Ставит на доску произвольную позицию с ходом игрока player, без незаконченной цепочки взятий
+     * (для инструментов разработчика и замеров).
+     */
+    void loadPosition(int[][] position, int player) {
+        for (int row = 0; row < 8; row++) {
+            System.arraycopy(position[row], 0, board[row], 0, 8);
+        }
+        currentPlayer = player;
+        mustContinueJump = false;
+        continueJumpRow = -1;
+        continueJumpCol = -1;
+    }
+
     /**
      * Возвращает тип шашки по координатам (или EMPTY, если вышли за пределы доски).
      */
@@ -217,38 +374,10 @@ public class CheckersGame {
      * Проверяет, может ли конкретная шашка выполнить хотя бы один допустимый ход.
      */
     private boolean hasAnyValidMoveForPiece(int row, int col) {
-        int piece = board[row][col];
         if (canPieceJump(row, col)) {
             return true;
         }
-        if (isKing(piece)) {
-            int[][] directions = {{1,1}, {1,-1}, {-1,1}, {-1,-1}};
-            for (int[] dir : directions) {
-                for (int distance = 1; distance < 8; distance++) {
-                    int newRow = row + dir[0] * distance;
-                    int newCol = col + dir[1] * distance;
-                    if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-                        if (board[newRow][newCol] == EMPTY && isValidKingMove(row, col, newRow, newCol)) {
-                            return true;
-                        }
-                    } else {
-                        break;
-                    }
-                }
-            }
-        } else {
-            int[][] directions = (piece == BLACK_PIECE) ?
-                    new int[][]{{1,1}, {1,-1}} : new int[][]{{-1,1}, {-1,-1}};
-            for (int[] dir : directions) {
-                int newRow = row + dir[0];
-                int newCol = col + dir[1];
-                if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8 &&
-                        board[newRow][newCol] == EMPTY) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return hasAnyValidMove(row, col);
     }
 
     /**
@@ -286,666 +415,294 @@ public class CheckersGame {
 
     /**
      * Выполняет ход от имени ИИ с учётом уровня сложности.
+     * Поиск идёт в фоновом потоке по снимку доски; выбранный ход применяется в главном потоке.
      */
     public void makeAIMove() {
         if (aiPlayer == EMPTY || (currentPlayer != aiPlayer && !mustContinueJump)) {
             return;
         }
 
-        if (mustContinueJump) {
-            List<Move> possibleJumpsForContinuation = getPossibleJumpsForPiece(continueJumpRow, continueJumpCol);
-            if (possibleJumpsForContinuation.isEmpty()) {
-                Log.e(TAG, "AI must continue jump but has no possible jumps from (" + continueJumpRow + "," + continueJumpCol + ")");
-                return;
+        List<Move> candidates = new ArrayList<>();
+        for (Move move : getAllMoveSequences(aiPlayer)) {
+            if (!mustContinueJump || (move.fromRow == continueJumpRow && move.fromCol == continueJumpCol)) {
+                candidates.add(move);
             }
-
-            Move chosenMove = selectBestMove(possibleJumpsForContinuation, true);
-            if (chosenMove != null) {
-                makeMove(chosenMove.fromRow, chosenMove.fromCol, chosenMove.toRow, chosenMove.toCol);
+        }
+        if (candidates.isEmpty()) {
+            if (mustContinueJump) {
+                Log.e(TAG, "AI must continue jump but has no possible jumps from (" + continueJumpRow + "," + continueJumpCol + ")");
             }
             return;
         }
 
-        List<Move> possibleMoves = getAllPossibleMoves(aiPlayer);
-        if (possibleMoves.isEmpty()) {
+        if (engine == null) {
+            engine = new EngineExecutor(mainHandler::post);
+        }
+        Move bookMove = findBookMove(candidates);
+        if (bookMove != null) {
+            Log.d(TAG, "AI book move");
+            stopPondering();
+            engine.submit(() -> bookMove, this::applyAIMove);
             return;
         }
 
-        Move chosenMove = selectBestMove(possibleMoves, false);
-        if (chosenMove != null) {
-            makeMove(chosenMove.fromRow, chosenMove.fromCol, chosenMove.toRow, chosenMove.toCol);
+        long budgetMs = TimeManager.moveBudget(aiTimeLeftMs, timeLimitMs);
+        if (ponderBoard != null) {
+            if (!mustContinueJump && matchesPonderPosition()) {
+                Log.d(TAG, "Ponder hit");
+                ponderBoard = null;
+                ponderCandidates = candidates;
+                if (ponderFinished) {
+                    reportSearchStats(searcher);
+                    applyAIMove(toCandidate(ponderResult));
+                } else {
+                    ponderHitWaiting = true;
+                    searcher.ponderHit(budgetMs);
+                }
+                return;
+            }
+            stopPondering();
+        }
+
+        if (searcher == null && difficulty != DIFFICULTY_EASY) {
+            searcher = new Engine(hashSizeMb, searchThreads, searchMode, random, bitbase);
+            searcher.setSelectiveSearch(selectiveSearch);
         }
+        Engine activeSearcher = searcher;
+        int[][] snapshot = copyBoard();
+        int player = currentPlayer;
+        engine.submit(() -> selectBestMove(activeSearcher, snapshot, player, candidates, budgetMs), move -> {
+            reportSearchStats(activeSearcher);
+            // Если поиск упал, ИИ всё равно ходит — случайным допустимым ходом, как на лёгком уровне.
+            applyAIMove(move != null ? move : candidates.get(random.nextInt(candidates.size())));
+        });
     }
 
     /**
-     * Вспомогательный метод для выбора лучшего хода ИИ в зависимости от сложности.
+     * Передаёт слушателю статистику последнего поиска движка, если слушатель её ждёт и поиск был.
      */
-    private Move selectBestMove(List<Move> moves, boolean isContinuation) {
-        Move chosenMove = null;
-        switch (difficulty) {
-            case DIFFICULTY_EASY:
-                chosenMove = moves.get(random.nextInt(moves.size()));
-                break;
-            case DIFFICULTY_MEDIUM:
-                chosenMove = evaluateMoves(moves, 2);
-                break;
-            case DIFFICULTY_HARD:
-                chosenMove = evaluateMoves(moves, 6);
-                break;
+    private void reportSearchStats(Engine activeSearcher) {
+        if (activeSearcher == null || !(mainActivityCallback instanceof OnSearchStatsListener)) {
+            return;
         }
-        if (chosenMove == null) {
-            chosenMove = moves.get(random.nextInt(moves.size()));
+        SearchStats stats = activeSearcher.getLastStats();
+        if (stats != null) {
+            ((OnSearchStatsListener) mainActivityCallback).onSearchStats(stats);
         }
-        return chosenMove;
     }
 
     /**
-     * Оценивает возможные ходы с помощью MinMax и возвращает лучший.
+     * Ищет ход в дебютной книге (на лёгком уровне ИИ ходит случайно, и книга не используется).
+     * Двоичный поиск по отображённому в память файлу быстрее любого поиска, поэтому идёт в главном потоке.
      */
-    private Move evaluateMoves(List<Move> moves, int depth) {
-        double bestScore = Double.MIN_VALUE;
-        List<Move> bestMoves = new ArrayList<>();
-        for (Move move : moves) {
-            int[][] tempBoard = copyBoard();
-            simulateMove(move.fromRow, move.fromCol, move.toRow, move.toCol, tempBoard);
-            int nextPlayer = (currentPlayer == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER;
-            double score = minMax(tempBoard, depth, false, Double.MIN_VALUE, Double.MAX_VALUE, aiPlayer, nextPlayer);
-            if (Double.isNaN(score) || Double.isInfinite(score)) continue;
-            if (score > bestScore) {
-                bestScore = score;
-                bestMoves.clear();
-                bestMoves.add(move);
-            } else if (score == bestScore) {
-                bestMoves.add(move);
-            }
+    private Move findBookMove(List<Move> candidates) {
+        if (openingBook == null || mustContinueJump || difficulty == DIFFICULTY_EASY) {
+            return null;
         }
-        return bestMoves.isEmpty() ? null : bestMoves.get(random.nextInt(bestMoves.size()));
+        return openingBook.choose(board, currentPlayer, candidates, random);
     }
 
     /**
-     * Внутренний класс для представления хода.
+     * Применяет ход, найденный фоновым поиском, если ход всё ещё за ИИ.
+     * После хода ИИ начинает размышлять над ожидаемым ответом человека.
      */
-    private static class Move {
-        int fromRow, fromCol, toRow, toCol;
-        List<int[]> capturedPieces;
-        Move(int fromRow, int fromCol, int toRow, int toCol) {
-            this.fromRow = fromRow;
-            this.fromCol = fromCol;
-            this.toRow = toRow;
-            this.toCol = toCol;
-            this.capturedPieces = new ArrayList<>();
+    private void applyAIMove(Move chosenMove) {
+        if (chosenMove == null || currentPlayer != aiPlayer) {
+            return;
+        }
+        playMoveSequence(chosenMove);
+        if (currentPlayer != aiPlayer && getWinner() == EMPTY) {
+            startPondering();
         }
     }
 
+    // --- Размышление (pondering) ---
+
     /**
-     * Возвращает все допустимые ходы для указанного игрока.
+     * Запускает поиск в позиции после ожидаемого ответа человека — лучшего хода соперника из таблицы транспозиций.
+     * Если человек сыграет этот ход, ИИ сразу получает результат; иначе поиск начнётся с заполненной таблицей.
      */
-    private List<Move> getAllPossibleMoves(int player) {
-        List<Move> moves = new ArrayList<>();
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                if (isPlayerPiece(row, col, player)) {
-                    moves.addAll(getPossibleJumpsForPiece(row, col));
-                }
-            }
+    private void startPondering() {
+        if (!ponderingEnabled || searcher == null || engine == null) {
+            return;
         }
-        if (!moves.isEmpty()) {
-            return moves;
+        Move reply = searcher.expectedMove(board, currentPlayer);
+        if (reply == null) {
+            return;
         }
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                if (isPlayerPiece(row, col, player)) {
-                    moves.addAll(getPossibleRegularMovesForPiece(row, col));
-                }
-            }
+        int[][] position = Rules.play(board, reply);
+        List<Move> rootMoves = Rules.legalMoves(position, aiPlayer);
+        if (rootMoves.isEmpty()) {
+            return;
         }
-        return moves;
+
+        ponderBoard = position;
+        ponderFinished = false;
+        ponderHitWaiting = false;
+        ponderResult = null;
+        int maxDepth = (difficulty == DIFFICULTY_HARD) ? Engine.MAX_DEPTH : MEDIUM_MAX_DEPTH;
+        Engine activeSearcher = searcher;
+        activeSearcher.startPondering();
+        engine.submit(() -> activeSearcher.ponder(position, aiPlayer, rootMoves, maxDepth), this::onPonderFinished);
     }
 
     /**
-     * Возвращает все возможные взятия для конкретной шашки.
+     * Получает результат размышления: применяет его, если человек уже сыграл ожидаемый ход, иначе запоминает.
      */
-    private List<Move> getPossibleJumpsForPiece(int row, int col) {
-        List<Move> jumps = new ArrayList<>();
-        int piece = board[row][col];
-        if (isKing(piece)) {
-            int[][] directions = {{1,1}, {1,-1}, {-1,1}, {-1,-1}};
-            for (int[] dir : directions) {
-                for (int distance = 1; distance < 8; distance++) {
-                    int newRow = row + dir[0] * distance;
-                    int newCol = col + dir[1] * distance;
-                    if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-                        if (isValidKingJump(row, col, newRow, newCol)) {
-                            Move move = new Move(row, col, newRow, newCol);
-                            move.capturedPieces = getCapturedPiecesInMove(row, col, newRow, newCol);
-                            jumps.add(move);
-                        }
-                    } else {
-                        break;
-                    }
-                }
-            }
-        } else {
-            int[][] directions = {{2,2}, {2,-2}, {-2,2}, {-2,-2}};
-            for (int[] dir : directions) {
-                int newRow = row + dir[0];
-                int newCol = col + dir[1];
-                if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-                    if (isValidSimpleJump(row, col, newRow, newCol)) {
-                        Move move = new Move(row, col, newRow, newCol);
-                        int midRow = (row + newRow) / 2;
-                        int midCol = (col + newCol) / 2;
-                        move.capturedPieces.add(new int[]{midRow, midCol});
-                        jumps.add(move);
-                    }
-                }
-            }
+    private void onPonderFinished(Move move) {
+        if (ponderHitWaiting) {
+            ponderHitWaiting = false;
+            reportSearchStats(searcher);
+            applyAIMove(toCandidate(move));
+        } else if (ponderBoard != null) {
+            ponderFinished = true;
+            ponderResult = move;
         }
-        return jumps;
     }
 
     /**
-     * Возвращает все обычные (не взятия) ходы для конкретной шашки.
+     * Проверяет, совпадает ли позиция на доске с той, над которой размышлял ИИ.
      */
-    private List<Move> getPossibleRegularMovesForPiece(int row, int col) {
-        List<Move> moves = new ArrayList<>();
-        int piece = board[row][col];
-        if (isKing(piece)) {
-            int[][] directions = {{1,1}, {1,-1}, {-1,1}, {-1,-1}};
-            for (int[] dir : directions) {
-                for (int distance = 1; distance < 8; distance++) {
-                    int newRow = row + dir[0] * distance;
-                    int newCol = col + dir[1] * distance;
-                    if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8 && board[newRow][newCol] == EMPTY) {
-                        if (isValidKingMove(row, col, newRow, newCol)) {
-                            moves.add(new Move(row, col, newRow, newCol));
-                        }
-                    } else {
-                        break;
-                    }
-                }
-            }
-        } else {
-            int[][] directions = (piece == BLACK_PIECE) ?
-                    new int[][]{{1,1}, {1,-1}} : new int[][]{{-1,1}, {-1,-1}};
-            for (int[] dir : directions) {
-                int newRow = row + dir[0];
-                int newCol = col + dir[1];
-                if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8 && board[newRow][newCol] == EMPTY) {
-                    moves.add(new Move(row, col, newRow, newCol));
-                }
-            }
-        }
-        return moves;
+    private boolean matchesPonderPosition() {
+        return currentPlayer == aiPlayer && Arrays.deepEquals(board, ponderBoard);
     }
 
     /**
-     * Реализует алгоритм MinMax с альфа-бета отсечением для оценки позиции.
+     * Находит среди допустимых ходов ход с теми же клетками, что и ход, найденный при размышлении.
      */
-    private double minMax(int[][] evalBoard, int depth, boolean isMaximizing, double alpha, double beta, int aiPlayer, int currentPlayer) {
-        if (depth == 0) {
-            return evaluatePosition(evalBoard, aiPlayer, currentPlayer);
-        }
-        if (!hasAnyValidMovesForPlayerOnBoard(evalBoard, currentPlayer)) {
-            return (currentPlayer == aiPlayer) ? Double.MIN_VALUE / 2 : Double.MAX_VALUE / 2;
-        }
-
-        List<Move> possibleMoves = getAllPossibleMovesOnBoard(evalBoard, currentPlayer);
-        int nextPlayer = (currentPlayer == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER;
-
-        if (isMaximizing) {
-            double maxEval = Double.MIN_VALUE;
-            for (Move move : possibleMoves) {
-                int[][] newBoard = copyBoard(evalBoard);
-                simulateMove(move.fromRow, move.fromCol, move.toRow, move.toCol, newBoard);
-                double eval = minMax(newBoard, depth - 1, false, alpha, beta, aiPlayer, nextPlayer);
-                maxEval = Math.max(maxEval, eval);
-                alpha = Math.max(alpha, eval);
-                if (beta <= alpha) break;
-            }
-            return maxEval;
-        } else {
-            double minEval = Double.MAX_VALUE;
-            for (Move move : possibleMoves) {
-                int[][] newBoard = copyBoard(evalBoard);
-                simulateMove(move.fromRow, move.fromCol, move.toRow, move.toCol, newBoard);
-                double eval = minMax(newBoard, depth - 1, true, alpha, beta, aiPlayer, nextPlayer);
-                minEval = Math.min(minEval, eval);
-                beta = Math.min(beta, eval);
-                if (beta <= alpha) break;
-            }
-            return minEval;
-        }
-    }
-
-    // --- Вспомогательные методы для MinMax (работа с копией доски) ---
-
-    private boolean hasAnyValidMovesForPlayerOnBoard(int[][] evalBoard, int player) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                if (isPlayerPieceOnBoard(evalBoard, row, col, player) && hasAnyValidMoveForPieceOnBoard(evalBoard, row, col, player)) {
-                    return true;
+    private Move toCandidate(Move move) {
+        if (move != null && ponderCandidates != null) {
+            for (Move candidate : ponderCandidates) {
+                if (candidate.sameSquares(move)) {
+                    return candidate;
                 }
             }
         }
-        return false;
-    }
-
-    private List<Move> getAllPossibleMovesOnBoard(int[][] evalBoard, int player) {
-        List<Move> moves = new ArrayList<>();
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                if (isPlayerPieceOnBoard(evalBoard, row, col, player)) {
-                    moves.addAll(getPossibleJumpsForPieceOnBoard(evalBoard, row, col));
-                }
-            }
-        }
-        if (!moves.isEmpty()) {
-            return moves;
-        }
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                if (isPlayerPieceOnBoard(evalBoard, row, col, player)) {
-                    moves.addAll(getPossibleRegularMovesForPieceOnBoard(evalBoard, row, col));
-                }
-            }
-        }
-        return moves;
-    }
-
-    private boolean isPlayerPieceOnBoard(int[][] evalBoard, int row, int col, int player) {
-        int piece = evalBoard[row][col];
-        if (player == BLACK_PLAYER) {
-            return piece == BLACK_PIECE || piece == BLACK_KING;
-        } else {
-            return piece == WHITE_PIECE || piece == WHITE_KING;
-        }
-    }
-
-    private boolean hasAnyValidMoveForPieceOnBoard(int[][] evalBoard, int row, int col, int player) {
-        int piece = evalBoard[row][col];
-        if (canPieceJumpOnBoard(evalBoard, row, col, player)) {
-            return true;
-        }
-        if (isKing(piece)) {
-            int[][] directions = {{1,1}, {1,-1}, {-1,1}, {-1,-1}};
-            for (int[] dir : directions) {
-                for (int distance = 1; distance < 8; distance++) {
-                    int newRow = row + dir[0] * distance;
-                    int newCol = col + dir[1] * distance;
-                    if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-                        if (evalBoard[newRow][newCol] == EMPTY && isValidKingMoveOnBoard(evalBoard, row, col, newRow, newCol)) {
-                            return true;
-                        }
-                    } else {
-                        break;
-                    }
-                }
-            }
-        } else {
-            int[][] directions = (piece == BLACK_PIECE) ?
-                    new int[][]{{1,1}, {1,-1}} : new int[][]{{-1,1}, {-1,-1}};
-            for (int[] dir : directions) {
-                int newRow = row + dir[0];
-                int newCol = col + dir[1];
-                if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8 && evalBoard[newRow][newCol] == EMPTY) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return ponderCandidates == null || ponderCandidates.isEmpty() ? null
+                : ponderCandidates.get(random.nextInt(ponderCandidates.size()));
     }
 
-    private boolean canPieceJumpOnBoard(int[][] evalBoard, int row, int col, int player) {
-        int piece = evalBoard[row][col];
-        if (isKing(piece)) {
-            int[][] directions = {{1,1}, {1,-1}, {-1,1}, {-1,-1}};
-            for (int[] dir : directions) {
-                for (int distance = 1; distance < 8; distance++) {
-                    int newRow = row + dir[0] * distance;
-                    int newCol = col + dir[1] * distance;
-                    if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-                        if (isValidKingJumpOnBoard(evalBoard, row, col, newRow, newCol, player)) {
-                            return true;
-                        }
-                    } else {
-                        break;
-                    }
-                }
-            }
-            return false;
-        } else {
-            int[][] directions = {{2,2}, {2,-2}, {-2,2}, {-2,-2}};
-            for (int[] dir : directions) {
-                int newRow = row + dir[0];
-                int newCol = col + dir[1];
-                if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-                    if (isValidSimpleJumpOnBoard(evalBoard, row, col, newRow, newCol, player)) {
-                        return true;
-                    }
-                }
-            }
-            return false;
-        }
-    }
-
-    private boolean isValidKingMoveOnBoard(int[][] evalBoard, int fromRow, int fromCol, int toRow, int toCol) {
-        if (!isDiagonal(fromRow, fromCol, toRow, toCol)) return false;
-        int rowStep = Integer.compare(toRow, fromRow);
-        int colStep = Integer.compare(toCol, fromCol);
-        int currentRow = fromRow + rowStep;
-        int currentCol = fromCol + colStep;
-        while (currentRow != toRow && currentCol != toCol) {
-            if (evalBoard[currentRow][currentCol] != EMPTY) {
-                return false;
-            }
-            currentRow += rowStep;
-            currentCol += colStep;
-        }
-        return true;
-    }
-
-    private boolean isValidKingJumpOnBoard(int[][] evalBoard, int fromRow, int fromCol, int toRow, int toCol, int player) {
-        if (!isDiagonal(fromRow, fromCol, toRow, toCol)) return false;
-        int rowStep = Integer.compare(toRow, fromRow);
-        int colStep = Integer.compare(toCol, fromCol);
-        int currentRow = fromRow + rowStep;
-        int currentCol = fromCol + colStep;
-        boolean foundEnemy = false;
-        while (currentRow != toRow && currentCol != toCol) {
-            int currentPiece = evalBoard[currentRow][currentCol];
-            if (currentPiece != EMPTY) {
-                if (foundEnemy) return false;
-                boolean isEnemy = (player == BLACK_PLAYER) ?
-                        (currentPiece == WHITE_PIECE || currentPiece == WHITE_KING) :
-                        (currentPiece == BLACK_PIECE || currentPiece == BLACK_KING);
-                if (isEnemy) {
-                    foundEnemy = true;
-                } else {
-                    return false;
-                }
-            }
-            currentRow += rowStep;
-            currentCol += colStep;
-        }
-        return foundEnemy && evalBoard[toRow][toCol] == EMPTY;
-    }
-
-    private boolean isValidSimpleJumpOnBoard(int[][] evalBoard, int fromRow, int fromCol, int toRow, int toCol, int player) {
-        if (Math.abs(toRow - fromRow) != 2 || Math.abs(toCol - fromCol) != 2) return false;
-        int middleRow = (fromRow + toRow) / 2;
-        int middleCol = (fromCol + toCol) / 2;
-        if (middleRow < 0 || middleRow >= 8 || middleCol < 0 || middleCol >= 8) return false;
-        int middlePiece = evalBoard[middleRow][middleCol];
-        boolean isEnemy = (player == BLACK_PLAYER) ?
-                (middlePiece == WHITE_PIECE || middlePiece == WHITE_KING) :
-                (middlePiece == BLACK_PIECE || middlePiece == BLACK_KING);
-        boolean isDestinationEmpty = evalBoard[toRow][toCol] == EMPTY;
-        return isEnemy && isDestinationEmpty;
-    }
-
-    private List<Move> getPossibleJumpsForPieceOnBoard(int[][] evalBoard, int row, int col) {
-        List<Move> jumps = new ArrayList<>();
-        int piece = evalBoard[row][col];
-        int player = (piece == BLACK_PIECE || piece == BLACK_KING) ? BLACK_PLAYER : WHITE_PLAYER;
-        if (isKing(piece)) {
-            int[][] directions = {{1,1}, {1,-1}, {-1,1}, {-1,-1}};
-            for (int[] dir : directions) {
-                for (int distance = 1; distance < 8; distance++) {
-                    int newRow = row + dir[0] * distance;
-                    int newCol = col + dir[1] * distance;
-                    if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-                        if (isValidKingJumpOnBoard(evalBoard, row, col, newRow, newCol, player)) {
-                            jumps.add(new Move(row, col, newRow, newCol));
-                        }
-                    } else {
-                        break;
-                    }
-                }
-            }
-        } else {
-            int[][] directions = {{2,2}, {2,-2}, {-2,2}, {-2,-2}};
-            for (int[] dir : directions) {
-                int newRow = row + dir[0];
-                int newCol = col + dir[1];
-                if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-                    if (isValidSimpleJumpOnBoard(evalBoard, row, col, newRow, newCol, player)) {
-                        jumps.add(new Move(row, col, newRow, newCol));
-                    }
-                }
-            }
-        }
-        return jumps;
-    }
-
-    private List<Move> getPossibleRegularMovesForPieceOnBoard(int[][] evalBoard, int row, int col) {
-        List<Move> moves = new ArrayList<>();
-        int piece = evalBoard[row][col];
-        if (isKing(piece)) {
-            int[][] directions = {{1,1}, {1,-1}, {-1,1}, {-1,-1}};
-            for (int[] dir : directions) {
-                for (int distance = 1; distance < 8; distance++) {
-                    int newRow = row + dir[0] * distance;
-                    int newCol = col + dir[1] * distance;
-                    if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8 && evalBoard[newRow][newCol] == EMPTY) {
-                        if (isValidKingMoveOnBoard(evalBoard, row, col, newRow, newCol)) {
-                            moves.add(new Move(row, col, newRow, newCol));
-                        }
-                    } else {
-                        break;
-                    }
-                }
-            }
-        } else {
-            int[][] directions = (piece == BLACK_PIECE) ?
-                    new int[][]{{1,1}, {1,-1}} : new int[][]{{-1,1}, {-1,-1}};
-            for (int[] dir : directions) {
-                int newRow = row + dir[0];
-                int newCol = col + dir[1];
-                if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8 && evalBoard[newRow][newCol] == EMPTY) {
-                    moves.add(new Move(row, col, newRow, newCol));
-                }
-            }
-        }
-        return moves;
+    /**
+     * Прекращает размышление и сбрасывает его состояние.
+     */
+    private void stopPondering() {
+        if ((ponderBoard != null || ponderHitWaiting) && searcher != null) {
+            searcher.stop();
+            engine.cancel();
+        }
+        ponderBoard = null;
+        ponderFinished = false;
+        ponderHitWaiting = false;
+        ponderResult = null;
+        ponderCandidates = null;
     }
 
     /**
-     * Применяет ход к указанной доске (копии) без изменения основной доски.
+     * Отменяет поиск ИИ и отложенные ходы ИИ (при перезапуске, сдаче или окончании времени).
      */
-    private void simulateMove(int fromRow, int fromCol, int toRow, int toCol, int[][] simBoard) {
-        int piece = simBoard[fromRow][fromCol];
-        boolean wasJump = Math.abs(toRow - fromRow) > 1;
-        simBoard[toRow][toCol] = simBoard[fromRow][fromCol];
-        simBoard[fromRow][fromCol] = EMPTY;
-        if (wasJump) {
-            if (isKing(piece)) {
-                int rowStep = Integer.compare(toRow, fromRow);
-                int colStep = Integer.compare(toCol, fromCol);
-                int currentRow = fromRow + rowStep;
-                int currentCol = fromCol + colStep;
-                while (currentRow != toRow && currentCol != toCol) {
-                    if (simBoard[currentRow][currentCol] != EMPTY) {
-                        simBoard[currentRow][currentCol] = EMPTY;
-                    }
-                    currentRow += rowStep;
-                    currentCol += colStep;
-                }
-            } else {
-                int middleRow = (fromRow + toRow) / 2;
-                int middleCol = (fromCol + toCol) / 2;
-                simBoard[middleRow][middleCol] = EMPTY;
-            }
+    public void cancelAIMove() {
+        mainHandler.removeCallbacksAndMessages(null);
+        stopPondering();
+        if (engine != null) {
+            engine.cancel();
         }
-        if ((piece == BLACK_PIECE && toRow == 7) || (piece == WHITE_PIECE && toRow == 0)) {
-            simBoard[toRow][toCol] = (piece == BLACK_PIECE) ? BLACK_KING : WHITE_KING;
+        if (searcher != null) {
+            searcher.stop();
         }
     }
 
     /**
-     * Создаёт копию текущей доски.
+     * Отменяет поиск и освобождает фоновые потоки ИИ. После вызова ИИ в этой партии больше не ходит.
      */
-    private int[][] copyBoard() {
-        int[][] newBoard = new int[8][8];
-        for (int i = 0; i < 8; i++) {
-            System.arraycopy(board[i], 0, newBoard[i], 0, 8);
+    public void release() {
+        cancelAIMove();
+        aiPlayer = EMPTY;
+        Engine releasedSearcher = searcher;
+        searcher = null;
+        if (engine != null) {
+            // Пул поиска закрывается в потоке ИИ, когда прерванный поиск уже вернул управление.
+            engine.shutdown(() -> {
+                if (releasedSearcher != null) {
+                    releasedSearcher.close();
+                }
+            });
+            engine = null;
+        } else if (releasedSearcher != null) {
+            releasedSearcher.close();
         }
-        return newBoard;
     }
 
     /**
-     * Создаёт копию переданной доски.
+     * Вспомогательный метод для выбора лучшего хода ИИ в зависимости от сложности.
+     * Вызывается в потоке ИИ и работает только со снимком доски.
      */
-    private int[][] copyBoard(int[][] original) {
-        int[][] newBoard = new int[8][8];
-        for (int i = 0; i < 8; i++) {
-            System.arraycopy(original[i], 0, newBoard[i], 0, 8);
+    private Move selectBestMove(Engine searcher, int[][] position, int player, List<Move> moves, long budgetMs) {
+        Move chosenMove = null;
+        switch (difficulty) {
+            case DIFFICULTY_EASY:
+                chosenMove = moves.get(random.nextInt(moves.size()));
+                break;
+            case DIFFICULTY_MEDIUM:
+                chosenMove = searchBestMove(searcher, position, player, moves, MEDIUM_MAX_DEPTH, budgetMs);
+                break;
+            case DIFFICULTY_HARD:
+                chosenMove = searchBestMove(searcher, position, player, moves, Engine.MAX_DEPTH, budgetMs);
+                break;
         }
-        return newBoard;
+        if (chosenMove == null) {
+            chosenMove = moves.get(random.nextInt(moves.size()));
+        }
+        return chosenMove;
     }
 
     /**
-     * Оценивает позицию на доске для ИИ (материал, мобильность, угрозы, центральность).
+     * Ищет лучший ход итеративным углублением в пределах бюджета времени, рассчитанного по часам ИИ.
      */
-    private double evaluatePosition(int[][] evalBoard, int aiPlayer, int currentPlayer) {
-        double aiScore = 0;
-        double opponentScore = 0;
-        double aiMobility = 0;
-        double opponentMobility = 0;
-
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                int piece = evalBoard[row][col];
-                if (piece == EMPTY) continue;
-                boolean isAi = (aiPlayer == BLACK_PLAYER && (piece == BLACK_PIECE || piece == BLACK_KING)) ||
-                        (aiPlayer == WHITE_PLAYER && (piece == WHITE_PIECE || piece == WHITE_KING));
-                double value = isKing(piece) ? 3 : 1;
-
-                if (!isKing(piece)) {
-                    if (isAi) {
-                        value += (aiPlayer == BLACK_PLAYER) ? row * 0.2 : (7 - row) * 0.2;
-                    } else {
-                        value += (aiPlayer == BLACK_PLAYER) ? (7 - row) * 0.2 : row * 0.2;
-                    }
-                }
-
-                if (row >= 2 && row <= 5 && col >= 2 && col <= 5) {
-                    value += isAi ? 0.3 : -0.3;
-                }
-
-                int oppPlayer = (aiPlayer == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER;
-                int threatCount = getThreatCount(evalBoard, row, col, oppPlayer);
-                if (threatCount > 0) {
-                    if (isAi) {
-                        value -= (isKing(piece) ? 6 : 3) * threatCount;
-                    } else {
-                        value += (isKing(piece) ? 6 : 3) * threatCount;
-                    }
-                }
-
-                if (isAi) {
-                    aiScore += value;
-                } else {
-                    opponentScore += value;
-                }
-            }
-        }
-
-        aiMobility = countMobility(evalBoard, aiPlayer);
-        int oppPlayer = (aiPlayer == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER;
-        opponentMobility = countMobility(evalBoard, oppPlayer);
-        double mobilityBonus = aiMobility - opponentMobility;
-        return ((aiScore - opponentScore) * 10 + mobilityBonus);
+    private Move searchBestMove(Engine searcher, int[][] position, int player, List<Move> moves, int maxDepth, long budgetMs) {
+        Move move = searcher.search(position, player, moves, maxDepth, budgetMs);
+        Log.d(TAG, "AI search: depth " + searcher.getCompletedDepth() + ", nodes " + searcher.getNodes()
+                + ", budget " + budgetMs + " ms");
+        return move;
     }
 
     /**
-     * Подсчитывает общую мобильность (количество возможных ходов) для игрока.
+     * Создаёт копию доски для поиска в фоновом потоке.
      */
-    private int countMobility(int[][] evalBoard, int player) {
-        int count = 0;
+    private int[][] copyBoard() {
+        int[][] copy = new int[8][];
         for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                if (isPlayerPieceOnBoard(evalBoard, row, col, player)) {
-                    if (isKing(evalBoard[row][col])) {
-                        int[][] dirs = {{1,1}, {1,-1}, {-1,1}, {-1,-1}};
-                        for (int[] d : dirs) {
-                            for (int dist = 1; dist < 8; dist++) {
-                                int nr = row + d[0] * dist;
-                                int nc = col + d[1] * dist;
-                                if (nr < 0 || nr >= 8 || nc < 0 || nc >= 8) break;
-                                if (evalBoard[nr][nc] != EMPTY) break;
-                                count++;
-                            }
-                        }
-                    } else {
-                        int[][] dirs = (player == BLACK_PLAYER) ?
-                                new int[][]{{1,1},{1,-1}} :
-                                new int[][]{{-1,1},{-1,-1}};
-                        for (int[] d : dirs) {
-                            int nr = row + d[0];
-                            int nc = col + d[1];
-                            if (nr >= 0 && nr < 8 && nc >= 0 && nc < 8 && evalBoard[nr][nc] == EMPTY) {
-                                count++;
-                            }
-                        }
-                    }
-                }
-            }
+            copy[row] = board[row].clone();
         }
-        return count;
+        return copy;
     }
 
     /**
-     * Подсчитывает количество угроз (возможных взятий) вражескими шашками данной клетке.
+     * Возвращает все ходы игрока для ИИ: полные цепочки взятий одним ходом, а если взятий нет — обычные ходы.
      */
-    private int getThreatCount(int[][] evalBoard, int targetRow, int targetCol, int attackerPlayer) {
-        int piece = evalBoard[targetRow][targetCol];
-        if (piece == EMPTY) return 0;
-        int threatCount = 0;
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                int attackerPiece = evalBoard[r][c];
-                if (!isPlayerPieceOnBoard(evalBoard, r, c, attackerPlayer)) continue;
-                if (isKing(attackerPiece)) {
-                    if (Math.abs(r - targetRow) == Math.abs(c - targetCol) &&
-                            isValidKingJumpOnBoard(evalBoard, r, c, targetRow, targetCol, attackerPlayer)) {
-                        threatCount++;
-                    }
-                } else {
-                    if (Math.abs(r - targetRow) == 2 && Math.abs(c - targetCol) == 2 &&
-                            isValidSimpleJumpOnBoard(evalBoard, r, c, targetRow, targetCol, attackerPlayer)) {
-                        threatCount++;
-                    }
-                }
-            }
-        }
-        return threatCount;
+    private List<Move> getAllMoveSequences(int player) {
+        return Rules.legalMoves(board, player);
     }
 
     /**
-     * Проверяет, находится ли шашка под угрозой взятия со стороны противника.
+     * Играет ход ИИ целиком: цепочка взятий выполняется прыжок за прыжком без пауз между ними.
      */
-    private boolean isPieceUnderAttack(int[][] evalBoard, int targetRow, int targetCol, int attackerPlayer) {
-        int piece = evalBoard[targetRow][targetCol];
-        if (piece == EMPTY) return false;
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                int attackerPiece = evalBoard[r][c];
-                if (!isPlayerPieceOnBoard(evalBoard, r, c, attackerPlayer)) continue;
-                if (isKing(attackerPiece)) {
-                    if (Math.abs(r - targetRow) == Math.abs(c - targetCol) &&
-                            isValidKingJumpOnBoard(evalBoard, r, c, targetRow, targetCol, attackerPlayer)) {
-                        return true;
-                    }
-                } else {
-                    if (Math.abs(r - targetRow) == 2 && Math.abs(c - targetCol) == 2 &&
-                            isValidSimpleJumpOnBoard(evalBoard, r, c, targetRow, targetCol, attackerPlayer)) {
-                        return true;
-                    }
+    private void playMoveSequence(Move move) {
+        playingSequence = true;
+        try {
+            int row = move.fromRow;
+            int col = move.fromCol;
+            List<int[]> hops = (move.path != null) ? move.path : Collections.singletonList(new int[]{move.toRow, move.toCol});
+            for (int[] hop : hops) {
+                if (!makeMove(row, col, hop[0], hop[1])) {
+                    Log.e(TAG, "AI move sequence rejected at (" + row + "," + col + ") -> (" + hop[0] + "," + hop[1] + ")");
+                    return;
                 }
+                row = hop[0];
+                col = hop[1];
             }
+        } finally {
+            playingSequence = false;
         }
-        return false;
     }
 
     /**
@@ -1000,8 +757,8 @@ public class CheckersGame {
                 mustContinueJump = true;
                 continueJumpRow = toRow;
                 continueJumpCol = toCol;
-                if (aiPlayer != EMPTY && currentPlayer == aiPlayer) {
-                    new android.os.Handler(android.os.Looper.getMainLooper()).postDelayed(() -> {
+                if (aiPlayer != EMPTY && currentPlayer == aiPlayer && !playingSequence) {
+                    mainHandler.postDelayed(() -> {
                         makeAIMove();
                     }, 500);
                 }
@@ -1014,7 +771,7 @@ public class CheckersGame {
 
         boolean aiJustMoved = (aiPlayer != EMPTY && previousPlayer == aiPlayer);
         if (aiJustMoved) {
-            new android.os.Handler(android.os.Looper.getMainLooper()).post(() -> {
+            mainHandler.post(() -> {
                 if (mainActivityCallback != null) {
                     mainActivityCallback.onAImoveCompleted();
                 }
@@ -1022,7 +779,7 @@ public class CheckersGame {
         }
 
         if (aiPlayer != EMPTY && currentPlayer == aiPlayer) {
-            new android.os.Handler(android.os.Looper.getMainLooper()).postDelayed(() -> {
+            mainHandler.postDelayed(() -> {
                 makeAIMove();
             }, 500);
         }
@@ -1214,106 +971,21 @@ public class CheckersGame {
      * Проверяет, может ли шашка продолжить взятие после текущего хода.
      */
     private boolean canContinueJumping(int row, int col) {
-        int piece = board[row][col];
-        if (isKing(piece)) {
-            int[][] directions = {{1,1}, {1,-1}, {-1,1}, {-1,-1}};
-            for (int[] dir : directions) {
-                for (int distance = 1; distance < 8; distance++) {
-                    int newRow = row + dir[0] * distance;
-                    int newCol = col + dir[1] * distance;
-                    if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-                        if (isValidKingJump(row, col, newRow, newCol)) {
-                            return true;
-                        }
-                    } else {
-                        break;
-                    }
-                }
-            }
-        } else {
-            int[][] directions = {{2,2}, {2,-2}, {-2,2}, {-2,-2}};
-            for (int[] dir : directions) {
-                int newRow = row + dir[0];
-                int newCol = col + dir[1];
-                if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-                    if (isValidSimpleJump(row, col, newRow, newCol)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+        return canPieceJump(row, col);
     }
 
     /**
      * Проверяет, может ли шашка выполнить хотя бы одно взятие.
      */
     private boolean canPieceJump(int row, int col) {
-        int piece = board[row][col];
-        if (isKing(piece)) {
-            int[][] directions = {{1,1}, {1,-1}, {-1,1}, {-1,-1}};
-            for (int[] dir : directions) {
-                for (int distance = 1; distance < 8; distance++) {
-                    int newRow = row + dir[0] * distance;
-                    int newCol = col + dir[1] * distance;
-                    if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-                        if (isValidKingJump(row, col, newRow, newCol)) {
-                            return true;
-                        }
-                    } else {
-                        break;
-                    }
-                }
-            }
-            return false;
-        } else {
-            int[][] directions = {{2,2}, {2,-2}, {-2,2}, {-2,-2}};
-            for (int[] dir : directions) {
-                int newRow = row + dir[0];
-                int newCol = col + dir[1];
-                if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-                    if (isValidSimpleJump(row, col, newRow, newCol)) {
-                        return true;
-                    }
-                }
-            }
-            return false;
-        }
+        return Rules.canJump(board, row, col);
     }
 
     /**
      * Проверяет наличие хотя бы одного допустимого хода у шашки (включая простые ходы).
      */
     private boolean hasAnyValidMove(int row, int col) {
-        int piece = board[row][col];
-        if (isKing(piece)) {
-            int[][] directions = {{1,1}, {1,-1}, {-1,1}, {-1,-1}};
-            for (int[] dir : directions) {
-                for (int distance = 1; distance < 8; distance++) {
-                    int newRow = row + dir[0] * distance;
-                    int newCol = col + dir[1] * distance;
-                    if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
-                        if (board[newRow][newCol] == EMPTY && isValidKingMove(row, col, newRow, newCol)) {
-                            return true;
-                        }
-                    } else {
-                        break;
-                    }
-                }
-            }
-        } else {
-            int[][] directions = (piece == BLACK_PIECE) ?
-                    new int[][]{{1,1}, {1,-1}} : new int[][]{{-1,1}, {-1,-1}};
-            for (int[] dir : directions) {
-                int newRow = row + dir[0];
-                int newCol = col + dir[1];
-                if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8 &&
-                        board[newRow][newCol] == EMPTY) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return Rules.hasRegularMove(board, row, col);
     }
 
     /**
@@ -1357,7 +1029,7 @@ public class CheckersGame {
      */
     public void startGame() {
         if (aiPlayer == WHITE_PLAYER && currentPlayer == WHITE_PLAYER) {
-            new android.os.Handler(android.os.Looper.getMainLooper()).postDelayed(() -> {
+            mainHandler.postDelayed(() -> {
                 makeAIMove();
             }, 500);
         }
@@ -0,0 +1,90 @@
+package com.example.checkers;
+
+import android.util.Log;
+
+import com.example.checkers.engine.Move;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Выполняет поиск хода ИИ в отдельном фоновом потоке, чтобы не блокировать поток UI.
+ * Готовый ход передаётся обработчику через callbackExecutor (в приложении — главный Looper).
+ * Отменённый или устаревший поиск обработчику не сообщается.
+ * Если поиск упал с исключением, оно пишется в лог, а обработчик получает null.
+ */
+final class EngineExecutor {
+    private static final String TAG = "CheckersGame";
+
+    /**
+     * Получает ход, выбранный ИИ (null, если поиск упал). Вызывается в потоке callbackExecutor.
+     */
+    interface Callback {
+        void onMoveChosen(Move move);
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "checkers-ai");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Executor callbackExecutor;
+
+    // --- Текущий запрос (меняется только в потоке callbackExecutor) ---
+    private int generation;
+    private Future<?> pending;
+
+    EngineExecutor(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Запускает поиск в фоне, отменяя предыдущий незавершённый запрос.
+     * Задача должна работать со снимком позиции, а не с живой доской.
+     */
+    Future<?> submit(Callable<Move> search, Callback callback) {
+        cancel();
+        int requestGeneration = generation;
+        pending = executor.submit(() -> {
+            Move move;
+            try {
+                move = search.call();
+            } catch (Exception e) {
+                Log.e(TAG, "AI search failed", e);
+                move = null;
+            }
+            Move result = move;
+            callbackExecutor.execute(() -> {
+                if (requestGeneration == generation) {
+                    pending = null;
+                    callback.onMoveChosen(result);
+                }
+            });
+            return null;
+        });
+        return pending;
+    }
+
+    /**
+     * Отменяет текущий запрос: его результат, даже если поиск успеет закончиться, будет отброшен.
+     */
+    void cancel() {
+        generation++;
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+    }
+
+    /**
+     * Отменяет текущий запрос и останавливает фоновый поток после выполнения cleanup.
+     */
+    void shutdown(Runnable cleanup) {
+        cancel();
+        executor.execute(cleanup);
+        executor.shutdown();
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.checkers;
 
 import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.content.res.AssetManager;
 import android.graphics.Color;
 import android.media.AudioManager;
 import android.media.SoundPool;
@@ -17,6 +19,18 @@ import android.widget.TextView;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import android.widget.Toast;
+import com.example.checkers.engine.Bitbase;
+import com.example.checkers.engine.OpeningBook;
+import com.example.checkers.engine.SearchStats;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class MainActivity extends AppCompatActivity {
     private static final String TAG = "CheckersGame";
@@ -60,16 +74,69 @@ public class MainActivity extends AppCompatActivity {
     private static final String KEY_PLAYER_WINS_HARD = "player_wins_hard";
     private static final String KEY_AI_WINS_HARD = "ai_wins_hard";
 
+    // ----- Search statistics (JSON Lines in the app files dir) -----
+    private static final String SEARCH_STATS_FILE = "search_stats.jsonl";
+    private static final long MAX_SEARCH_STATS_BYTES = 1024 * 1024;
+
+    // ----- Engine data (copied from assets to the app files dir) -----
+    private static final String[] ENGINE_DATA_FILES = {Bitbase.FILE_NAME, OpeningBook.FILE_NAME};
+
+    /** Фоновый поток для работы с файлами, чтобы не блокировать главный поток диском. */
+    private final ExecutorService fileExecutor = Executors.newSingleThreadExecutor();
+
     /**
      * Инициализация активности: настройка аудио и отображение главного меню.
      */
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        installEngineData();
         initAudio();
         showMainMenu();
     }
 
+    /**
+     * Копирует данные движка из assets в каталог данных приложения в фоновом потоке: движок отображает файлы
+     * в память, а сжатые assets так открыть нельзя. Файл копируется, если его нет или приложение обновилось
+     * после копирования. Пишется временный файл, который затем переименовывается, поэтому игра никогда не
+     * откроет файл недописанным; партия, начатая до конца копирования, просто играет без этих данных.
+     */
+    private void installEngineData() {
+        long lastUpdate;
+        try {
+            lastUpdate = getPackageManager().getPackageInfo(getPackageName(), 0).lastUpdateTime;
+        } catch (PackageManager.NameNotFoundException e) {
+            lastUpdate = 0;
+        }
+        long appUpdatedAt = lastUpdate;
+        File dir = getFilesDir();
+        AssetManager assets = getAssets();
+        fileExecutor.execute(() -> {
+            for (String name : ENGINE_DATA_FILES) {
+                File target = new File(dir, name);
+                if (target.isFile() && target.lastModified() >= appUpdatedAt) continue;
+                File temp = new File(dir, name + ".tmp");
+                try (InputStream input = assets.open(name); OutputStream output = new FileOutputStream(temp)) {
+                    byte[] buffer = new byte[64 * 1024];
+                    int read;
+                    while ((read = input.read(buffer)) > 0) {
+                        output.write(buffer, 0, read);
+                    }
+                } catch (IOException e) {
+                    Log.e(TAG, "Cannot install " + name, e);
+                    temp.delete();
+                    continue;
+                }
+                if (temp.renameTo(target)) {
+                    Log.d(TAG, "Installed " + name + ": " + target.length() + " bytes");
+                } else {
+                    Log.e(TAG, "Cannot rename " + temp);
+                    temp.delete();
+                }
+            }
+        });
+    }
+
     /**
      * Инициализирует SoundPool в зависимости от версии Android.
      */
@@ -119,6 +186,7 @@ public class MainActivity extends AppCompatActivity {
                     playerTimeLeft = millisUntilFinished;
                 } else {
                     aiTimeLeft = millisUntilFinished;
+                    game.setAiTimeLeft(aiTimeLeft);
                 }
                 updateTimerDisplays();
             }
@@ -162,6 +230,7 @@ public class MainActivity extends AppCompatActivity {
      */
     private void onTimeOut(int loser) {
         stopActiveTimer();
+        game.cancelAIMove();
         int winner = (loser == CheckersGame.WHITE_PLAYER) ? CheckersGame.BLACK_PLAYER : CheckersGame.WHITE_PLAYER;
         String loserName = (loser == CheckersGame.BLACK_PLAYER) ? "Черные" : "Белые";
         incrementWin(winner, currentDifficulty);
@@ -397,7 +466,19 @@ public class MainActivity extends AppCompatActivity {
                 aiTimeLeft = currentTimeLimitMs;
             }
             initializeGameWithSettings();
-            game.setOnGameUpdateListener(this::onAImoveCompleted);
+            game.setOnGameUpdateListener(new CheckersGame.OnSearchStatsListener() {
+                @Override
+                public void onAImoveCompleted() {
+                    MainActivity.this.onAImoveCompleted();
+                }
+
+                @Override
+                public void onSearchStats(SearchStats stats) {
+                    recordSearchStats(stats);
+                }
+            });
+            game.setTimeControl(useTimers ? currentTimeLimitMs : -1);
+            game.setAiTimeLeft(useTimers ? aiTimeLeft : -1);
             setupBoard();
             playerTimerText = findViewById(R.id.playerTimerText);
             aiTimerText = findViewById(R.id.aiTimerText);
@@ -435,11 +516,39 @@ public class MainActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Пишет статистику поиска хода ИИ в лог и дописывает её строкой JSON в файл в каталоге приложения
+     * (в фоновом потоке). Когда файл вырастает больше MAX_SEARCH_STATS_BYTES, он начинается заново.
+     */
+    private void recordSearchStats(SearchStats stats) {
+        Log.d(TAG, "AI search stats: depth " + stats.depth + "/" + stats.selectiveDepth + ", nodes " + stats.nodes
+                + ", " + stats.getNodesPerSecond() + " nodes/s, " + stats.getElapsedMs() + " ms");
+        if (fileExecutor.isShutdown()) {
+            return; // поиск закончился уже после onDestroy
+        }
+        File file = new File(getFilesDir(), SEARCH_STATS_FILE);
+        String json = stats.toJson();
+        fileExecutor.execute(() -> {
+            boolean append = file.length() <= MAX_SEARCH_STATS_BYTES;
+            try (Writer writer = new FileWriter(file, append)) {
+                writer.write(json);
+                writer.write('\n');
+            } catch (IOException e) {
+                Log.e(TAG, "Cannot write search stats", e);
+            }
+        });
+    }
+
     /**
      * Создаёт новый объект CheckersGame с текущими настройками.
      */
     private void initializeGameWithSettings() {
+        if (game != null) {
+            game.release();
+        }
         game = new CheckersGame(currentDifficulty, currentAIPlayer);
+        game.setEndgameBitbase(new File(getFilesDir(), Bitbase.FILE_NAME));
+        game.setOpeningBook(new File(getFilesDir(), OpeningBook.FILE_NAME));
         boardLayout = findViewById(R.id.boardLayout);
         if (boardLayout == null) {
             throw new RuntimeException("boardLayout not found");
@@ -455,6 +564,7 @@ public class MainActivity extends AppCompatActivity {
                 .setTitle("Сдаться?")
                 .setMessage("Вы уверены, что хотите сдаться? Поражение будет засчитано.")
                 .setPositiveButton("Да", (dialog, which) -> {
+                    game.release();
                     int winner = currentAIPlayer;
                     int loser = (currentAIPlayer == CheckersGame.BLACK_PLAYER)
                             ? CheckersGame.WHITE_PLAYER
@@ -482,6 +592,7 @@ public class MainActivity extends AppCompatActivity {
                 .setMessage("Вы уверены, что хотите начать новую игру? Текущая партия будет потеряна.")
                 .setPositiveButton("Да", (dialog, which) -> {
                     stopActiveTimer();
+                    game.release();
                     if (useTimers) {
                         playerTimeLeft = currentTimeLimitMs;
                         aiTimeLeft = currentTimeLimitMs;
@@ -736,15 +847,20 @@ public class MainActivity extends AppCompatActivity {
     }
 
     /**
-     * Освобождает ресурсы при уничтожении активности: останавливает таймер и SoundPool.
+     * Освобождает ресурсы при уничтожении активности: останавливает таймер, поиск ИИ и SoundPool.
      */
     @Override
     protected void onDestroy() {
         super.onDestroy();
         stopActiveTimer();
+        if (game != null) {
+            game.release();
+        }
         if (soundPool != null) {
             soundPool.release();
             soundPool = null;
         }
+        // Начатые записи в файлы дописываются, новые не принимаются.
+        fileExecutor.shutdown();
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+// Замеры JMH движка на обычной JVM (Linux): ./gradlew :benchmark:jmh
+// Модуль зависит только от :engine и меряет его публичный API (Engine, Rules), как его видит приложение.
+// Отчёт — операции в секунду и скорость выделения памяти (профилировщик gc), результат в build/results/jmh.
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    implementation(project(":engine"))
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    benchmarkMode.set(listOf("thrpt"))
+    timeUnit.set("s")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    includes.set(listOf(project.findProperty("jmhIncludes")?.toString() ?: ".*"))
+}
@@ -0,0 +1,74 @@
+package com.example.checkers.benchmark;
+
+import com.example.checkers.engine.Rules;
+
+/**
+ * Постоянный набор позиций для замеров: сторона (w или b), двоеточие, 32 тёмные клетки от a8 к h1
+ * (b, w — шашки, B, W — дамки, точка — пусто), как в эталонном файле perft.txt движка.
+ * Средняя игра и эндшпиль взяты из него.
+ */
+final class BenchmarkPositions {
+
+    /** Дебют: c3-d4 f6-g5 g3-f4 g7-f6 b2-c3, ход чёрных. */
+    static final String OPENING = "b:bbbbbbb.bbbb...b.ww.www..wwwwwww";
+    /** Средняя игра: по семь-восемь шашек, взятий нет. */
+    static final String MIDDLEGAME = "b:.b.bw.bb...b..b.w......www.ww..w";
+    /** Эндшпиль с дальнобойными дамками у обеих сторон. */
+    static final String ENDGAME = "b:bB...ww.b.....w.....w.w......W..";
+
+    private BenchmarkPositions() {
+    }
+
+    /**
+     * Доска 8x8 позиции фазы партии.
+     */
+    static int[][] board(String phase) {
+        String text = byPhase(phase);
+        int[][] board = new int[8][8];
+        for (int square = 0; square < 32; square++) {
+            int row = square / 4;
+            // Тёмные клетки — те, где сумма ряда и столбца нечётна.
+            int col = 2 * (square % 4) + ((row % 2 == 0) ? 1 : 0);
+            board[row][col] = piece(text.charAt(2 + square));
+        }
+        return board;
+    }
+
+    /**
+     * Игрок, чей ход в позиции фазы партии.
+     */
+    static int player(String phase) {
+        return (byPhase(phase).charAt(0) == 'w') ? Rules.WHITE_PLAYER : Rules.BLACK_PLAYER;
+    }
+
+    private static int piece(char c) {
+        switch (c) {
+            case 'b':
+                return Rules.BLACK_PIECE;
+            case 'w':
+                return Rules.WHITE_PIECE;
+            case 'B':
+                return Rules.BLACK_KING;
+            case 'W':
+                return Rules.WHITE_KING;
+            default:
+                return Rules.EMPTY;
+        }
+    }
+
+    /**
+     * Позиция по имени фазы партии: opening, middlegame или endgame.
+     */
+    private static String byPhase(String phase) {
+        switch (phase) {
+            case "opening":
+                return OPENING;
+            case "middlegame":
+                return MIDDLEGAME;
+            case "endgame":
+                return ENDGAME;
+            default:
+                throw new IllegalArgumentException("Unknown phase " + phase);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.checkers.benchmark;
+
+import java.util.List;
+
+import com.example.checkers.engine.Move;
+import com.example.checkers.engine.Rules;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Правила движка {@link Rules}, как их вызывает приложение: полные ходы позиции, ходы по одному прыжку
+ * и каждый полный ход позиции на новой доске.
+ */
+@State(Scope.Thread)
+public class MoveGenerationBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String phase;
+
+    private int[][] board;
+    private int player;
+    private List<Move> moves;
+
+    @Setup
+    public void setUp() {
+        board = BenchmarkPositions.board(phase);
+        player = BenchmarkPositions.player(phase);
+        moves = Rules.legalMoves(board, player);
+    }
+
+    @Benchmark
+    public List<Move> legalMoves() {
+        return Rules.legalMoves(board, player);
+    }
+
+    @Benchmark
+    public List<Move> singleJumpMoves() {
+        return Rules.getAllPossibleMovesOnBoard(board, player);
+    }
+
+    @Benchmark
+    public int playAll() {
+        int pieces = 0;
+        for (Move move : moves) {
+            int[][] next = Rules.play(board, move);
+            pieces += next[move.toRow][move.toCol];
+        }
+        return pieces;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.checkers.benchmark;
+
+import java.util.List;
+import java.util.Random;
+
+import com.example.checkers.engine.Engine;
+import com.example.checkers.engine.Move;
+import com.example.checkers.engine.Rules;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Поиск {@link Engine} в одном потоке до фиксированной глубины без ограничения времени.
+ * Перед каждым вызовом движок забывает прошлые поиски, так что каждый поиск идёт с нуля.
+ * selective=false выключает выборочный поиск и даёт полный альфа-бета перебор.
+ * Глубина 1 — почти одна статическая оценка позиций после ходов корня и перебор взятий за горизонтом.
+ */
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    private static final long NO_TIME_LIMIT_MS = Long.MAX_VALUE / 1_000_000L;
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String phase;
+
+    @Param({"1", "8"})
+    public int depth;
+
+    @Param({"true", "false"})
+    public boolean selective;
+
+    private Engine engine;
+    private int[][] board;
+    private int player;
+    private List<Move> rootMoves;
+
+    @Setup
+    public void setUp() {
+        board = BenchmarkPositions.board(phase);
+        player = BenchmarkPositions.player(phase);
+        rootMoves = Rules.legalMoves(board, player);
+        engine = new Engine(16, 1, Engine.MODE_ROOT_SPLIT, new Random(1), null);
+        engine.setSelectiveSearch(selective);
+    }
+
+    @Setup(Level.Invocation)
+    public void clear() {
+        engine.newGame();
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public Move search() {
+        return engine.search(board, player, rootMoves, depth, NO_TIME_LIMIT_MS);
+    }
+}
@@ -0,0 +1,79 @@
+// Движок без Android: правила, генерация ходов, оценка, поиск, эндшпильная база и дебютная книга.
+// Приложение подключает его как обычную зависимость.
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+// Инструменты разработчика (Perft, BitbaseGenerator, OpeningBookBuilder, Tournament, Tuner) — отдельный набор
+// исходников в src/tools: они видят внутренние классы движка (тот же пакет), но не входят в jar, от которого
+// зависит приложение. Запуск: ./gradlew :engine:perft --args="start 9", :engine:tournament --args="..." и т. д.
+val tools: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+// Тесты движка проверяют и инструменты (сверка perft, согласованность сгенерированной базы).
+sourceSets.test {
+    compileClasspath += tools.output
+    runtimeClasspath += tools.output
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
+
+tasks.test {
+    // PerftTest читает эталонный файл из каталога модуля: его правка должна перезапускать тесты.
+    inputs.file("perft.txt")
+}
+
+listOf("Perft", "BitbaseGenerator", "OpeningBookBuilder", "Tournament", "Tuner").forEach { tool ->
+    tasks.register<JavaExec>(tool.replaceFirstChar { it.lowercase() }) {
+        group = "tools"
+        description = "Runs $tool"
+        classpath = tools.runtimeClasspath
+        mainClass.set("com.example.checkers.engine.$tool")
+        workingDir = rootDir
+    }
+}
+
+// Данные движка, которые поставляются с приложением: эндшпильная база до 4 фигур (3.7 МБ) и дебютная книга
+// самоанализа. Файлы лежат в репозитории в app/src/main/assets и не строятся при сборке приложения:
+// после изменения правил, оценки или поиска их пересобирают вручную (./gradlew :engine:engineAssets)
+// и коммитят вместе с изменением. Приложение при первом запуске копирует их в каталог данных.
+val engineAssetsDir = rootProject.layout.projectDirectory.dir("app/src/main/assets")
+
+val generateBitbase by tasks.registering(JavaExec::class) {
+    group = "tools"
+    description = "Regenerates the endgame bitbase committed to the app assets"
+    val output = engineAssetsDir.file("endgame.bitbase").asFile
+    classpath = tools.runtimeClasspath
+    mainClass.set("com.example.checkers.engine.BitbaseGenerator")
+    args(output.path, "4")
+    doFirst { output.parentFile.mkdirs() }
+}
+
+val generateOpeningBook by tasks.registering(JavaExec::class) {
+    group = "tools"
+    description = "Rebuilds the opening book committed to the app assets by self-analysis"
+    val output = engineAssetsDir.file("opening.book").asFile
+    classpath = tools.runtimeClasspath
+    mainClass.set("com.example.checkers.engine.OpeningBookBuilder")
+    args(output.path, "analyse")
+    doFirst { output.parentFile.mkdirs() }
+}
+
+tasks.register("engineAssets") {
+    group = "tools"
+    description = "Regenerates all engine data files committed to the app assets"
+    dependsOn(generateBitbase, generateOpeningBook)
+}
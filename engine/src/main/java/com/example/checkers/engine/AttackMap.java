@@ -0,0 +1,71 @@
+package com.example.checkers.engine;
+
+/**
+ * Карта атак одной стороны: для каждой клетки — сколько фигур атакующего могут побить стоящую на ней фигуру
+ * первым прыжком (простые шашки бьют во все стороны, дамки — по всей диагонали).
+ * Считается за один проход сдвигами масок; счётчики хранятся побитово (единицы, двойки, четвёрки),
+ * так как по каждому из четырёх направлений клетку атакует не больше одной фигуры.
+ * Пустые клетки тоже учитываются: это клетки, куда соперника атакующего ставить опасно.
+ */
+final class AttackMap {
+
+    // --- Побитовые счётчики атакующих: count = ones + 2 * twos + 4 * fours ---
+    int ones;
+    int twos;
+    int fours;
+
+    /**
+     * Строит карту атак игрока attacker в позиции position.
+     */
+    void compute(BitBoard position, int attacker) {
+        ones = 0;
+        twos = 0;
+        fours = 0;
+        int own = position.pieces(attacker);
+        int empty = position.empty();
+        int men = own & ~position.kings;
+        for (int dir = BitBoard.DOWN_RIGHT; dir <= BitBoard.UP_LEFT; dir++) {
+            // Клетка бьётся в направлении dir, если за ней (ещё на шаг в dir) пусто.
+            int landable = BitBoard.step(empty, opposite(dir));
+            int hits = BitBoard.step(men, dir) & ~own & landable;
+            for (int ray = BitBoard.step(own & position.kings, dir); ray != 0; ray = BitBoard.step(ray & empty, dir)) {
+                hits |= ray & ~own & landable;
+            }
+            add(hits);
+        }
+    }
+
+    /**
+     * Все клетки, атакованные хотя бы одной фигурой.
+     */
+    int attacked() {
+        return ones | twos | fours;
+    }
+
+    /**
+     * Число атакующих клетку.
+     */
+    int count(int square) {
+        int bit = 1 << square;
+        return ((ones & bit) != 0 ? 1 : 0) + ((twos & bit) != 0 ? 2 : 0) + ((fours & bit) != 0 ? 4 : 0);
+    }
+
+    /**
+     * Сумма числа атакующих по всем клеткам маски.
+     */
+    int total(int mask) {
+        return Integer.bitCount(ones & mask) + 2 * Integer.bitCount(twos & mask) + 4 * Integer.bitCount(fours & mask);
+    }
+
+    private void add(int mask) {
+        int carry = ones & mask;
+        ones ^= mask;
+        int carry2 = twos & carry;
+        twos ^= carry;
+        fours |= carry2;
+    }
+
+    private static int opposite(int dir) {
+        return dir ^ 3;
+    }
+}
@@ -0,0 +1,563 @@
+package com.example.checkers.engine;
+
+import java.util.List;
+
+/**
+ * Битовое представление позиции для поиска ИИ.
+ * Каждая из 32 тёмных клеток соответствует одному биту: индекс = row * 4 + col / 2.
+ */
+final class BitBoard {
+
+    // --- Направления ходов по диагонали ---
+    static final int DOWN_RIGHT = 0; // row + 1, col + 1
+    static final int DOWN_LEFT = 1;  // row + 1, col - 1
+    static final int UP_RIGHT = 2;   // row - 1, col + 1
+    static final int UP_LEFT = 3;    // row - 1, col - 1
+
+    // --- Маски для сдвигов (чётные/нечётные ряды, крайние столбцы) ---
+    private static final int EVEN_ROWS = 0x0F0F0F0F;
+    private static final int ODD_ROWS = 0xF0F0F0F0;
+    private static final int FIRST_IN_ROW = 0x11111111;
+    private static final int LAST_IN_ROW = 0x88888888;
+
+    // --- Начальная расстановка: чёрные на рядах 0–2, белые на рядах 5–7 ---
+    static final int START_BLACK = 0x00000FFF;
+    static final int START_WHITE = 0xFFF00000;
+
+    static final int ROW_0 = 0x0000000F;
+    static final int ROW_7 = 0xF0000000;
+    static final int CENTER;
+
+    /**
+     * Вклад фигуры данного типа на данной клетке в члены оценки стороны, упакованные в одно int по 8 бит:
+     * число простых шашек, число дамок, фигуры в центре и ряды, пройденные простыми шашками.
+     * Поля не переполняются (12 шашек, 8 клеток центра, 12 * 7 рядов), поэтому члены складываются и вычитаются
+     * целым числом.
+     */
+    static final int[][] TERMS = new int[5][32];
+    private static final int MEN_SHIFT = 0;
+    private static final int KINGS_SHIFT = 8;
+    private static final int CENTER_SHIFT = 16;
+    private static final int ADVANCE_SHIFT = 24;
+
+    static {
+        int center = 0;
+        for (int row = 2; row <= 5; row++) {
+            for (int col = 2; col <= 5; col++) {
+                if ((row + col) % 2 == 1) {
+                    center |= 1 << square(row, col);
+                }
+            }
+        }
+        CENTER = center;
+        for (int square = 0; square < 32; square++) {
+            int inCenter = ((CENTER >>> square) & 1) << CENTER_SHIFT;
+            TERMS[Rules.BLACK_PIECE][square] = (1 << MEN_SHIFT) + (row(square) << ADVANCE_SHIFT) + inCenter;
+            TERMS[Rules.WHITE_PIECE][square] = (1 << MEN_SHIFT) + ((7 - row(square)) << ADVANCE_SHIFT) + inCenter;
+            TERMS[Rules.BLACK_KING][square] = (1 << KINGS_SHIFT) + inCenter;
+            TERMS[Rules.WHITE_KING][square] = (1 << KINGS_SHIFT) + inCenter;
+        }
+    }
+
+    // --- Состояние позиции ---
+    int black;
+    int white;
+    int kings;
+    long key;
+
+    // --- Инкрементальные члены оценки сторон (упакованы по {@link #TERMS}) ---
+    int blackTerms;
+    int whiteTerms;
+
+    // --- Стек отмены ходов ---
+    static final int MAX_PLY = 128;
+    private final int[] undoCaptured = new int[MAX_PLY];
+    private final int[] undoCapturedKings = new int[MAX_PLY];
+    private final boolean[] undoPromoted = new boolean[MAX_PLY];
+    private final long[] undoKey = new long[MAX_PLY];
+    private final int[] undoBlackTerms = new int[MAX_PLY];
+    private final int[] undoWhiteTerms = new int[MAX_PLY];
+    private int ply;
+
+    BitBoard(int black, int white, int kings, int player) {
+        this.black = black;
+        this.white = white;
+        this.kings = kings;
+        this.key = Zobrist.hash(black, white, kings, player);
+        computeTerms();
+    }
+
+    /**
+     * Строит битовую позицию по обычной доске 8x8 для игрока, чей сейчас ход.
+     */
+    BitBoard(int[][] board, int player) {
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                int piece = board[row][col];
+                if (piece == Rules.EMPTY || (row + col) % 2 == 0) continue;
+                int bit = 1 << square(row, col);
+                if (piece == Rules.BLACK_PIECE || piece == Rules.BLACK_KING) {
+                    black |= bit;
+                } else {
+                    white |= bit;
+                }
+                if (piece == Rules.BLACK_KING || piece == Rules.WHITE_KING) {
+                    kings |= bit;
+                }
+            }
+        }
+        key = Zobrist.hash(black, white, kings, player);
+        computeTerms();
+    }
+
+    /**
+     * Обычная доска 8x8 для этой позиции.
+     */
+    int[][] toBoard() {
+        int[][] board = new int[8][8];
+        for (int bits = black | white; bits != 0; bits &= bits - 1) {
+            int square = Integer.numberOfTrailingZeros(bits);
+            board[row(square)][col(square)] = Zobrist.pieceAt(black, kings, square);
+        }
+        return board;
+    }
+
+    /**
+     * Считает члены оценки обеих сторон с нуля; дальше они обновляются в makeMove и unmakeMove.
+     */
+    private void computeTerms() {
+        blackTerms = 0;
+        whiteTerms = 0;
+        for (int bits = black | white; bits != 0; bits &= bits - 1) {
+            int square = Integer.numberOfTrailingZeros(bits);
+            int value = TERMS[Zobrist.pieceAt(black, kings, square)][square];
+            if ((black & (1 << square)) != 0) {
+                blackTerms += value;
+            } else {
+                whiteTerms += value;
+            }
+        }
+    }
+
+    /**
+     * Копирует в эту позицию фигуры и ключ другой позиции; стек отмены начинается заново.
+     */
+    void load(BitBoard other) {
+        black = other.black;
+        white = other.white;
+        kings = other.kings;
+        key = other.key;
+        blackTerms = other.blackTerms;
+        whiteTerms = other.whiteTerms;
+        ply = 0;
+    }
+
+    /**
+     * Ставит заданную позицию (для перебора позиций без создания объектов); стек отмены начинается заново.
+     */
+    void set(int black, int white, int kings, int player) {
+        this.black = black;
+        this.white = white;
+        this.kings = kings;
+        key = Zobrist.hash(black, white, kings, player);
+        computeTerms();
+        ply = 0;
+    }
+
+    // --- Текстовая запись позиции ---
+
+    /** Запись начальной позиции. */
+    static final String START_TEXT = "start";
+
+    /**
+     * Позиция из текстовой записи: сторона, чей ход (w или b), двоеточие и 32 символа тёмных клеток от a8 к h1
+     * (b, w — шашки, B, W — дамки, точка — пусто); {@link #START_TEXT} — начальная позиция.
+     */
+    static BitBoard fromText(String text) {
+        if (text.equals(START_TEXT)) {
+            return new BitBoard(START_BLACK, START_WHITE, 0, Rules.WHITE_PLAYER);
+        }
+        if (text.length() != 34 || text.charAt(1) != ':') {
+            throw new IllegalArgumentException("Bad position " + text);
+        }
+        int black = 0;
+        int white = 0;
+        int kings = 0;
+        for (int square = 0; square < 32; square++) {
+            char c = text.charAt(2 + square);
+            int bit = 1 << square;
+            if (c == 'b' || c == 'B') {
+                black |= bit;
+            } else if (c == 'w' || c == 'W') {
+                white |= bit;
+            } else if (c != '.') {
+                throw new IllegalArgumentException("Bad square '" + c + "' in " + text);
+            }
+            if (c == 'B' || c == 'W') {
+                kings |= bit;
+            }
+        }
+        return new BitBoard(black, white, kings, playerFromText(text));
+    }
+
+    /**
+     * Сторона, чей ход, по текстовой записи позиции.
+     */
+    static int playerFromText(String text) {
+        if (text.equals(START_TEXT) || text.charAt(0) == 'w') {
+            return Rules.WHITE_PLAYER;
+        }
+        if (text.charAt(0) == 'b') {
+            return Rules.BLACK_PLAYER;
+        }
+        throw new IllegalArgumentException("Bad side in " + text);
+    }
+
+    /**
+     * Текстовая запись этой позиции с ходом игрока player (см. {@link #fromText}).
+     */
+    String toText(int player) {
+        StringBuilder text = new StringBuilder(player == Rules.WHITE_PLAYER ? "w:" : "b:");
+        for (int square = 0; square < 32; square++) {
+            int bit = 1 << square;
+            boolean king = (kings & bit) != 0;
+            if ((black & bit) != 0) {
+                text.append(king ? 'B' : 'b');
+            } else if ((white & bit) != 0) {
+                text.append(king ? 'W' : 'w');
+            } else {
+                text.append('.');
+            }
+        }
+        return text.toString();
+    }
+
+    // --- Преобразование координат ---
+
+    static int square(int row, int col) {
+        return row * 4 + (col >> 1);
+    }
+
+    static int row(int square) {
+        return square >> 2;
+    }
+
+    static int col(int square) {
+        return ((square & 3) << 1) + (((square >> 2) & 1) == 0 ? 1 : 0);
+    }
+
+    /**
+     * Сдвигает все биты маски на одну клетку в заданном направлении.
+     * Биты, уходящие за край доски, отбрасываются.
+     */
+    static int step(int bits, int direction) {
+        switch (direction) {
+            case DOWN_RIGHT:
+                return ((bits & EVEN_ROWS & ~LAST_IN_ROW) << 5) | ((bits & ODD_ROWS) << 4);
+            case DOWN_LEFT:
+                return ((bits & EVEN_ROWS) << 4) | ((bits & ODD_ROWS & ~FIRST_IN_ROW) << 3);
+            case UP_RIGHT:
+                return ((bits & EVEN_ROWS & ~LAST_IN_ROW) >>> 3) | ((bits & ODD_ROWS) >>> 4);
+            default:
+                return ((bits & EVEN_ROWS) >>> 4) | ((bits & ODD_ROWS & ~FIRST_IN_ROW) >>> 5);
+        }
+    }
+
+    // --- Доступ к фигурам ---
+
+    int pieces(int player) {
+        return player == Rules.BLACK_PLAYER ? black : white;
+    }
+
+    int opponents(int player) {
+        return player == Rules.BLACK_PLAYER ? white : black;
+    }
+
+    int empty() {
+        return ~(black | white);
+    }
+
+    private int terms(int player) {
+        return player == Rules.BLACK_PLAYER ? blackTerms : whiteTerms;
+    }
+
+    int menCount(int player) {
+        return (terms(player) >>> MEN_SHIFT) & 0xFF;
+    }
+
+    int kingCount(int player) {
+        return (terms(player) >>> KINGS_SHIFT) & 0xFF;
+    }
+
+    /**
+     * Число фигур игрока в центре доски ({@link #CENTER}).
+     */
+    int centerCount(int player) {
+        return (terms(player) >>> CENTER_SHIFT) & 0xFF;
+    }
+
+    /**
+     * Сумма рядов, пройденных простыми шашками игрока.
+     */
+    int advancement(int player) {
+        return terms(player) >>> ADVANCE_SHIFT;
+    }
+
+    // --- Генерация ходов ---
+
+    /**
+     * Заполняет список всеми ходами игрока: только взятия, если они есть, иначе обычные ходы.
+     * Возвращает true, если в список попали взятия.
+     */
+    boolean generateMoves(int player, MoveList moves) {
+        generateJumps(player, moves);
+        if (!moves.isEmpty()) {
+            return true;
+        }
+        int empty = empty();
+        int promotionRow = (player == Rules.BLACK_PLAYER) ? ROW_7 : ROW_0;
+        for (int bits = pieces(player); bits != 0; bits &= bits - 1) {
+            int from = Integer.numberOfTrailingZeros(bits);
+            int bit = 1 << from;
+            if ((kings & bit) != 0) {
+                for (int dir = DOWN_RIGHT; dir <= UP_LEFT; dir++) {
+                    for (int to = step(bit, dir); (to & empty) != 0; to = step(to, dir)) {
+                        moves.add(MoveList.encode(from, Integer.numberOfTrailingZeros(to), false), 0, 0);
+                    }
+                }
+            } else {
+                int first = (player == Rules.BLACK_PLAYER) ? DOWN_RIGHT : UP_RIGHT;
+                for (int dir = first; dir <= first + 1; dir++) {
+                    int to = step(bit, dir) & empty;
+                    if (to != 0) {
+                        moves.add(MoveList.encode(from, Integer.numberOfTrailingZeros(to), (to & promotionRow) != 0), 0, 0);
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * То же для границы поиска (корень, основная доска): ходы возвращаются объектами с клетками цепочки.
+     */
+    boolean generateMoves(int player, List<Move> moves) {
+        MoveList list = new MoveList();
+        boolean captures = generateMoves(player, list);
+        for (int i = 0; i < list.size; i++) {
+            moves.add(list.toMove(i));
+        }
+        return captures;
+    }
+
+    /**
+     * Заполняет список всеми полными цепочками взятий игрока, каждую как один ход
+     * (простые шашки бьют во все стороны, дамки — дальнобойно).
+     */
+    void generateJumps(int player, MoveList moves) {
+        moves.clear();
+        int enemy = opponents(player);
+        int empty = empty();
+        for (int bits = pieces(player); bits != 0; bits &= bits - 1) {
+            int from = Integer.numberOfTrailingZeros(bits);
+            int bit = 1 << from;
+            boolean king = (kings & bit) != 0;
+            addChains(player, from, from, king, king, enemy, empty | bit, 0, 0, 0L, moves);
+        }
+    }
+
+    /**
+     * Продолжает цепочку взятий с клетки square. Как и на основной доске, сбитые шашки снимаются сразу
+     * после прыжка, а простая шашка, дошедшая до последнего ряда, продолжает бить уже как дамка.
+     * Цепочка заканчивается там, где следующего взятия нет.
+     */
+    private void addChains(int player, int from, int square, boolean wasKing, boolean king, int enemy, int empty,
+                           int length, int captured, long path, MoveList moves) {
+        int bit = 1 << square;
+        int promotionRow = (player == Rules.BLACK_PLAYER) ? ROW_7 : ROW_0;
+        boolean extended = false;
+        for (int dir = DOWN_RIGHT; dir <= UP_LEFT; dir++) {
+            int victim = step(bit, dir);
+            if (king) {
+                while ((victim & empty) != 0) {
+                    victim = step(victim, dir);
+                }
+            }
+            if ((victim & enemy) == 0) continue;
+            for (int land = step(victim, dir); (land & empty) != 0; land = step(land, dir)) {
+                int to = Integer.numberOfTrailingZeros(land);
+                addChains(player, from, to, wasKing, king || (land & promotionRow) != 0,
+                        enemy & ~victim, empty | victim, length + 1, captured | victim,
+                        MoveList.appendLanding(path, length, to), moves);
+                extended = true;
+                if (!king) break;
+            }
+        }
+        if (!extended && length > 0) {
+            moves.add(MoveList.encode(from, square, king && !wasKing), captured, path);
+        }
+    }
+
+    /**
+     * Проверяет, есть ли у игрока хотя бы одно взятие (сдвигами по всей маске сразу).
+     */
+    boolean hasJumps(int player) {
+        int own = pieces(player);
+        int enemy = opponents(player);
+        int empty = empty();
+        int men = own & ~kings;
+        for (int dir = DOWN_RIGHT; dir <= UP_LEFT; dir++) {
+            if ((step(step(men, dir) & enemy, dir) & empty) != 0) {
+                return true;
+            }
+            int ray = step(own & kings, dir);
+            while (ray != 0) {
+                if ((step(ray & enemy, dir) & empty) != 0) {
+                    return true;
+                }
+                ray = step(ray & empty, dir);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Считает мобильность игрока: число клеток, куда можно пойти без взятия.
+     */
+    int mobility(int player) {
+        int own = pieces(player);
+        int empty = empty();
+        int men = own & ~kings;
+        int first = (player == Rules.BLACK_PLAYER) ? DOWN_RIGHT : UP_RIGHT;
+        int count = Integer.bitCount(step(men, first) & empty)
+                + Integer.bitCount(step(men, first + 1) & empty);
+        for (int dir = DOWN_RIGHT; dir <= UP_LEFT; dir++) {
+            for (int ray = step(own & kings, dir) & empty; ray != 0; ray = step(ray, dir) & empty) {
+                count += Integer.bitCount(ray);
+            }
+        }
+        return count;
+    }
+
+    // --- Применение и отмена хода (без выделения памяти) ---
+
+    /**
+     * Применяет ход на месте: снимает все сбитые шашки цепочки (маска captured) и превращает в дамку,
+     * если шашка прошла через последний ряд (в том числе посреди цепочки).
+     * Ключ Зобриста и члены оценки обновляются по изменившимся клеткам, очередь хода переходит к сопернику.
+     * Снятые фигуры, факт превращения, прежние ключ и члены оценки запоминаются в стеке для {@link #unmakeMove}.
+     */
+    void makeMove(int move, int captured) {
+        int from = MoveList.from(move);
+        int to = MoveList.to(move);
+        int fromBit = 1 << from;
+        int toBit = 1 << to;
+        boolean isBlack = (black & fromBit) != 0;
+        boolean isKing = (kings & fromBit) != 0;
+        undoKey[ply] = key;
+        undoBlackTerms[ply] = blackTerms;
+        undoWhiteTerms[ply] = whiteTerms;
+
+        undoCaptured[ply] = captured;
+        undoCapturedKings[ply] = captured & kings;
+        int capturedTerms = 0;
+        for (int bits = captured; bits != 0; bits &= bits - 1) {
+            int square = Integer.numberOfTrailingZeros(bits);
+            int piece = Zobrist.pieceAt(black, kings, square);
+            key ^= Zobrist.PIECES[piece][square];
+            capturedTerms += TERMS[piece][square];
+        }
+        black &= ~captured;
+        white &= ~captured;
+        kings &= ~captured;
+
+        if (isBlack) {
+            black = (black & ~fromBit) | toBit;
+        } else {
+            white = (white & ~fromBit) | toBit;
+        }
+        boolean promoted = !isKing && MoveList.promotes(move);
+        undoPromoted[ply] = promoted;
+        if (isKing || promoted) {
+            kings = (kings & ~fromBit) | toBit;
+        }
+        int oldPiece = isBlack ? (isKing ? Rules.BLACK_KING : Rules.BLACK_PIECE)
+                : (isKing ? Rules.WHITE_KING : Rules.WHITE_PIECE);
+        int newPiece = Zobrist.pieceAt(black, kings, to);
+        key ^= Zobrist.PIECES[oldPiece][from]
+                ^ Zobrist.PIECES[newPiece][to]
+                ^ Zobrist.WHITE_TO_MOVE;
+        int moved = TERMS[newPiece][to] - TERMS[oldPiece][from];
+        if (isBlack) {
+            blackTerms += moved;
+            whiteTerms -= capturedTerms;
+        } else {
+            whiteTerms += moved;
+            blackTerms -= capturedTerms;
+        }
+        ply++;
+    }
+
+    /**
+     * Отменяет последний применённый ход, возвращая снятые фигуры и простую шашку вместо новой дамки.
+     */
+    void unmakeMove(int move) {
+        ply--;
+        int fromBit = 1 << MoveList.from(move);
+        int toBit = 1 << MoveList.to(move);
+        boolean isBlack = (black & toBit) != 0;
+
+        if (isBlack) {
+            black = (black & ~toBit) | fromBit;
+        } else {
+            white = (white & ~toBit) | fromBit;
+        }
+        if (undoPromoted[ply]) {
+            kings &= ~toBit;
+        } else if ((kings & toBit) != 0) {
+            kings = (kings & ~toBit) | fromBit;
+        }
+
+        int captured = undoCaptured[ply];
+        if (isBlack) {
+            white |= captured;
+        } else {
+            black |= captured;
+        }
+        kings |= undoCapturedKings[ply];
+        key = undoKey[ply];
+        blackTerms = undoBlackTerms[ply];
+        whiteTerms = undoWhiteTerms[ply];
+    }
+
+    /**
+     * Применяет ход-объект с границы поиска (корень, основная доска).
+     */
+    void makeMove(Move move) {
+        int from = square(move.fromRow, move.fromCol);
+        int to = square(move.toRow, move.toCol);
+        int lastRow = ((black & (1 << from)) != 0) ? ROW_7 : ROW_0;
+        int captured = 0;
+        for (int[] piece : move.capturedPieces) {
+            captured |= 1 << square(piece[0], piece[1]);
+        }
+        makeMove(MoveList.encode(from, to, (((1 << to) | landings(move)) & lastRow) != 0), captured);
+    }
+
+    void unmakeMove(Move move) {
+        unmakeMove(MoveList.encode(square(move.fromRow, move.fromCol), square(move.toRow, move.toCol), false));
+    }
+
+    /**
+     * Возвращает маску всех клеток приземления цепочки взятий (0 для хода без цепочки).
+     */
+    private static int landings(Move move) {
+        int mask = 0;
+        if (move.path != null) {
+            for (int[] square : move.path) {
+                mask |= 1 << square(square[0], square[1]);
+            }
+        }
+        return mask;
+    }
+}
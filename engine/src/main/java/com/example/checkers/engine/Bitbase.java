@@ -0,0 +1,220 @@
+package com.example.checkers.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Эндшпильная база «выигрыш/проигрыш/ничья» для позиций с небольшим числом фигур, построенная
+ * BitbaseGenerator (инструменты движка). Файл отображается в память и читается без копирования.
+ *
+ * Позиции разбиты на срезы по составу (простые и дамки каждого цвета). Внутри среза номер позиции —
+ * смешанное основание из рангов множеств клеток каждой группы фигур (простые шашки не стоят на своём
+ * последнем ряду), умноженное на 2 плюс очередь хода. Результат занимает 2 бита с точки зрения
+ * стороны, чей ход; неиспользуемые номера (фигуры на одной клетке) хранят {@link #UNKNOWN}.
+ *
+ * Формат файла: MAGIC, VERSION, maxPieces, число срезов, затем для каждого среза его состав и смещение
+ * данных (от начала файла), затем данные срезов.
+ */
+public final class Bitbase {
+
+    /** Имя файла базы в каталоге данных приложения. */
+    public static final String FILE_NAME = "endgame.bitbase";
+
+    // --- Результаты для стороны, чей ход ---
+    static final int UNKNOWN = 0;
+    static final int WIN = 1;
+    static final int LOSS = 2;
+    static final int DRAW = 3;
+
+    static final int MAGIC = 0x434B4242; // "CKBB"
+    static final int VERSION = 2;
+
+    /**
+     * Наибольшее поддерживаемое число фигур на доске. Группы фигур нумеруются каждая по своим клеткам,
+     * поэтому база растёт быстро: с 6 фигурами самый большой срез — 386 млн номеров (помещается в byte[]
+     * генератора), а весь файл — 1.87 ГБ (адресуется одним отображённым буфером, смещения в {@link #probe} — int).
+     * С 7 фигурами не выполняется ни то, ни другое.
+     */
+    static final int MAX_PIECES = 6;
+
+    // --- Клетки, где может стоять простая шашка: чёрные — ряды 0–6, белые — ряды 1–7 ---
+    static final int MAN_SQUARES = 28;
+    private static final int WHITE_MAN_SHIFT = 4;
+
+    /** Биномиальные коэффициенты C(n, k) для n до 32. */
+    private static final long[][] BINOMIAL = new long[33][MAX_PIECES + 1];
+
+    static {
+        for (int n = 0; n <= 32; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, MAX_PIECES); k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    private final ByteBuffer data;
+    private final int maxPieces;
+    private final long[] sliceOffsets = new long[signatureCount()];
+
+    private Bitbase(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            throw new IOException("Not an endgame bitbase");
+        }
+        maxPieces = data.getInt(8);
+        int slices = data.getInt(12);
+        if (maxPieces < 2 || maxPieces > MAX_PIECES) {
+            throw new IOException("Unsupported piece count " + maxPieces);
+        }
+        Arrays.fill(sliceOffsets, -1);
+        int position = 16;
+        for (int i = 0; i < slices; i++) {
+            int signature = data.getInt(position);
+            long offset = data.getLong(position + 4);
+            if (signature < 0 || signature >= sliceOffsets.length
+                    || offset + (entries(signature) + 3) / 4 > data.capacity()) {
+                throw new IOException("Corrupt bitbase directory");
+            }
+            sliceOffsets[signature] = offset;
+            position += 12;
+        }
+    }
+
+    /**
+     * Открывает базу из файла, отображая его в память. Возвращает null, если файла нет.
+     */
+    public static Bitbase open(File file) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (RandomAccessFile input = new RandomAccessFile(file, "r");
+             FileChannel channel = input.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Bitbase(buffer);
+        }
+    }
+
+    public int maxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * Результат позиции для игрока player, чей ход, или UNKNOWN, если позиции нет в базе.
+     * Стоит как одно чтение таблицы транспозиций: ранги нескольких множеств и один байт из файла.
+     */
+    int probe(int black, int white, int kings, int player) {
+        if (Integer.bitCount(black | white) > maxPieces || black == 0 || white == 0) {
+            return UNKNOWN;
+        }
+        long offset = sliceOffsets[signature(black, white, kings)];
+        if (offset < 0) {
+            return UNKNOWN;
+        }
+        long entry = index(black, white, kings, player);
+        int packed = data.get((int) (offset + (entry >> 2)));
+        return (packed >> (((int) entry & 3) * 2)) & 3;
+    }
+
+    // --- Нумерация позиций (общая для генератора и чтения) ---
+
+    /**
+     * Номер среза по числу простых и дамок каждого цвета.
+     */
+    static int signature(int blackMen, int blackKings, int whiteMen, int whiteKings) {
+        int base = MAX_PIECES + 1;
+        return ((blackMen * base + blackKings) * base + whiteMen) * base + whiteKings;
+    }
+
+    static int signature(int black, int white, int kings) {
+        return signature(Integer.bitCount(black & ~kings), Integer.bitCount(black & kings),
+                Integer.bitCount(white & ~kings), Integer.bitCount(white & kings));
+    }
+
+    static int signatureCount() {
+        int base = MAX_PIECES + 1;
+        return base * base * base * base;
+    }
+
+    /**
+     * Число номеров в срезе (вместе с очередью хода).
+     */
+    static long entries(int signature) {
+        int base = MAX_PIECES + 1;
+        int whiteKings = signature % base;
+        int whiteMen = (signature / base) % base;
+        int blackKings = (signature / base / base) % base;
+        int blackMen = signature / base / base / base;
+        return 2 * BINOMIAL[MAN_SQUARES][blackMen] * BINOMIAL[32][blackKings]
+                * BINOMIAL[MAN_SQUARES][whiteMen] * BINOMIAL[32][whiteKings];
+    }
+
+    /**
+     * Номер позиции внутри её среза.
+     */
+    static long index(int black, int white, int kings, int player) {
+        int whiteMen = white & ~kings;
+        int whiteKings = white & kings;
+        long index = rank(black & ~kings);
+        index = index * BINOMIAL[32][Integer.bitCount(black & kings)] + rank(black & kings);
+        index = index * BINOMIAL[MAN_SQUARES][Integer.bitCount(whiteMen)] + rank(whiteMen >>> WHITE_MAN_SHIFT);
+        index = index * BINOMIAL[32][Integer.bitCount(whiteKings)] + rank(whiteKings);
+        return index * 2 + (player == Rules.WHITE_PLAYER ? 1 : 0);
+    }
+
+    /**
+     * Восстанавливает позицию среза по номеру: {black, white, kings, player}.
+     * Для неиспользуемого номера (две фигуры на одной клетке) возвращает null.
+     */
+    static int[] position(int signature, long entry) {
+        int base = MAX_PIECES + 1;
+        int whiteKingCount = signature % base;
+        int whiteManCount = (signature / base) % base;
+        int blackKingCount = (signature / base / base) % base;
+        int blackManCount = signature / base / base / base;
+        int player = ((entry & 1) == 0) ? Rules.BLACK_PLAYER : Rules.WHITE_PLAYER;
+        long index = entry >> 1;
+        int whiteKings = unrank(index % BINOMIAL[32][whiteKingCount], whiteKingCount);
+        index /= BINOMIAL[32][whiteKingCount];
+        int whiteMen = unrank(index % BINOMIAL[MAN_SQUARES][whiteManCount], whiteManCount) << WHITE_MAN_SHIFT;
+        index /= BINOMIAL[MAN_SQUARES][whiteManCount];
+        int blackKings = unrank(index % BINOMIAL[32][blackKingCount], blackKingCount);
+        int blackMen = unrank(index / BINOMIAL[32][blackKingCount], blackManCount);
+        int black = blackMen | blackKings;
+        int white = whiteMen | whiteKings;
+        if (Integer.bitCount(black | white) != blackManCount + blackKingCount + whiteManCount + whiteKingCount) {
+            return null;
+        }
+        return new int[]{black, white, blackKings | whiteKings, player};
+    }
+
+    /**
+     * Ранг множества клеток в комбинаторной системе счисления: сумма C(клетка, номер по порядку).
+     */
+    private static long rank(int squares) {
+        long rank = 0;
+        int k = 1;
+        for (int bits = squares; bits != 0; bits &= bits - 1) {
+            rank += BINOMIAL[Integer.numberOfTrailingZeros(bits)][k++];
+        }
+        return rank;
+    }
+
+    private static int unrank(long rank, int count) {
+        int squares = 0;
+        int square = 32;
+        for (int k = count; k > 0; k--) {
+            do {
+                square--;
+            } while (BINOMIAL[square][k] > rank);
+            squares |= 1 << square;
+            rank -= BINOMIAL[square][k];
+        }
+        return squares;
+    }
+}
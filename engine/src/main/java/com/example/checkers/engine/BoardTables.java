@@ -0,0 +1,62 @@
+package com.example.checkers.engine;
+
+import java.util.Arrays;
+
+/**
+ * Таблицы соседства тёмных клеток, построенные один раз при загрузке класса.
+ * Клетки нумеруются как в {@link BitBoard} (row * 4 + col / 2), направления — BitBoard.DOWN_RIGHT..UP_LEFT.
+ * Отсутствующая клетка (за краем доски) обозначается -1.
+ */
+final class BoardTables {
+
+    static final int NONE = -1;
+
+    /** Ряд и столбец клетки на доске 8x8. */
+    static final int[] ROW = new int[32];
+    static final int[] COL = new int[32];
+
+    /** Соседняя клетка по направлению (она же перепрыгиваемая при взятии простой шашкой). */
+    static final int[][] NEIGHBOUR = new int[32][4];
+
+    /** Клетка приземления при взятии простой шашкой через соседнюю клетку. */
+    static final int[][] LANDING = new int[32][4];
+
+    /** Все клетки диагонали от клетки до края доски по порядку удаления (для дамок). */
+    static final int[][][] RAY = new int[32][4][];
+
+    private static final int[] ROW_STEP = {1, 1, -1, -1};
+    private static final int[] COL_STEP = {1, -1, 1, -1};
+
+    static {
+        for (int square = 0; square < 32; square++) {
+            int row = BitBoard.row(square);
+            int col = BitBoard.col(square);
+            ROW[square] = row;
+            COL[square] = col;
+            for (int dir = BitBoard.DOWN_RIGHT; dir <= BitBoard.UP_LEFT; dir++) {
+                int length = 0;
+                int[] ray = new int[7];
+                int r = row + ROW_STEP[dir];
+                int c = col + COL_STEP[dir];
+                while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                    ray[length++] = BitBoard.square(r, c);
+                    r += ROW_STEP[dir];
+                    c += COL_STEP[dir];
+                }
+                RAY[square][dir] = Arrays.copyOf(ray, length);
+                NEIGHBOUR[square][dir] = (length > 0) ? ray[0] : NONE;
+                LANDING[square][dir] = (length > 1) ? ray[1] : NONE;
+            }
+        }
+    }
+
+    private BoardTables() {
+    }
+
+    /**
+     * Первое из двух направлений хода простой шашки игрока (второе — следующее по номеру).
+     */
+    static int firstForward(int player) {
+        return (player == Rules.BLACK_PLAYER) ? BitBoard.DOWN_RIGHT : BitBoard.UP_RIGHT;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.checkers.engine;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Синхронный интерфейс движка для приложения, замеров и пакетных задач: поиск лучшего хода,
+ * размышление над ожидаемой позицией и настройки поиска. Работает на обычной доске 8x8 ({@link Rules})
+ * и не зависит от Android. Методы поиска блокируют вызывающий поток до результата;
+ * {@link #stop} и {@link #ponderHit} вызываются из другого потока.
+ */
+public final class Engine implements AutoCloseable {
+
+    /** Максимальная глубина итеративного углубления. */
+    public static final int MAX_DEPTH = Searcher.MAX_DEPTH;
+
+    // --- Режимы многопоточного поиска ---
+    public static final int MODE_ROOT_SPLIT = Searcher.MODE_ROOT_SPLIT;
+    public static final int MODE_LAZY_SMP = Searcher.MODE_LAZY_SMP;
+
+    private final Searcher searcher;
+
+    /**
+     * Создаёт движок на threads потоков поиска в режиме mode с таблицей транспозиций на hashSizeMb мегабайт.
+     * random выбирает среди равных ходов; эндшпильная база bitbase может отсутствовать (null).
+     */
+    public Engine(int hashSizeMb, int threads, int mode, Random random, Bitbase bitbase) {
+        this.searcher = new Searcher(hashSizeMb, threads, mode, random, bitbase);
+    }
+
+    /**
+     * Включает или выключает выборочный поиск (сокращения поздних ходов и отсечение у листьев);
+     * действует со следующего поиска.
+     */
+    public void setSelectiveSearch(boolean enabled) {
+        searcher.setPruning(enabled ? new PruningSettings() : PruningSettings.disabled());
+    }
+
+    /**
+     * Ищет лучший ход игрока player среди ходов moves (полных, из {@link Rules#legalMoves}) итеративным
+     * углублением до maxDepth или до конца бюджета времени. Возвращает null, если поиск не успел
+     * закончить ни одной итерации.
+     */
+    public Move search(int[][] board, int player, List<Move> moves, int maxDepth, long budgetMs) {
+        return searcher.search(board, player, moves, maxDepth, budgetMs);
+    }
+
+    /**
+     * Ожидаемый ход игрока player — лучший ход позиции из таблицы транспозиций, или null, если его нет.
+     * Таблица помнит только начало и конец хода, поэтому если им соответствуют несколько цепочек взятий,
+     * ожидаемого хода тоже нет.
+     */
+    public Move expectedMove(int[][] board, int player) {
+        int expected = searcher.hashMove(new BitBoard(board, player));
+        Move found = null;
+        for (Move move : Rules.legalMoves(board, player)) {
+            if (TranspositionTable.encodeMove(move) == expected) {
+                if (found != null) {
+                    return null;
+                }
+                found = move;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Включает режим размышления: часы не ограничивают поиск до {@link #ponderHit}.
+     * Вызывается до отправки {@link #ponder} в поток поиска, чтобы ponderHit не мог его опередить.
+     */
+    public void startPondering() {
+        searcher.startPondering();
+    }
+
+    /**
+     * Размышляет над позицией, пока не будет вызван {@link #stop} или {@link #ponderHit}.
+     */
+    public Move ponder(int[][] board, int player, List<Move> moves, int maxDepth) {
+        return searcher.ponder(new BitBoard(board, player), player, moves, maxDepth);
+    }
+
+    /**
+     * Превращает размышление в обычный поиск с бюджетом budgetMs, отсчитанным от начала размышления.
+     */
+    public void ponderHit(long budgetMs) {
+        searcher.ponderHit(budgetMs);
+    }
+
+    /**
+     * Прерывает идущий поиск; он вернёт результат последней завершённой итерации.
+     */
+    public void stop() {
+        searcher.stop();
+    }
+
+    /**
+     * Забывает таблицу транспозиций и историю ходов прошлых поисков.
+     */
+    public void newGame() {
+        searcher.newGame();
+    }
+
+    /** Глубина последней завершённой итерации последнего поиска. */
+    public int getCompletedDepth() {
+        return searcher.getCompletedDepth();
+    }
+
+    /** Число узлов последнего поиска. */
+    public long getNodes() {
+        return searcher.getNodes();
+    }
+
+    /**
+     * Статистика последнего закончившегося поиска или размышления; null, если поисков ещё не было.
+     */
+    public SearchStats getLastStats() {
+        return searcher.getLastStats();
+    }
+
+    /**
+     * Освобождает потоки поиска. После вызова движок использовать нельзя.
+     */
+    @Override
+    public void close() {
+        searcher.close();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.checkers.engine;
+
+/**
+ * Веса статической оценки {@link SearchWorker#evaluatePosition} в десятых долях шашки.
+ * Значения по умолчанию — прежние константы оценки. Исполнители копируют веса в начале каждого поиска,
+ * поэтому менять их между поисками безопасно.
+ */
+final class EvalWeights {
+
+    /** Имена весов в порядке {@link #get} и {@link #set} (так они задаются в параметрах инструментов). */
+    static final String[] NAMES = {"man", "king", "advance", "center", "manThreat", "kingThreat", "mobility"};
+
+    // --- Материал ---
+    int man = 10;
+    int king = 30;
+    /** За каждый ряд, пройденный шашкой. */
+    int advance = 2;
+
+    // --- Позиция ---
+    /** За фигуру в центре доски. */
+    int center = 3;
+    /** Штраф за каждую атаку соперника на шашку. */
+    int manThreat = 3;
+    /** Штраф за каждую атаку соперника на дамку. */
+    int kingThreat = 6;
+    /** За каждый ход сверх числа ходов соперника. */
+    int mobility = 1;
+
+    int get(int index) {
+        switch (index) {
+            case 0: return man;
+            case 1: return king;
+            case 2: return advance;
+            case 3: return center;
+            case 4: return manThreat;
+            case 5: return kingThreat;
+            case 6: return mobility;
+            default: throw new IllegalArgumentException("Unknown weight " + index);
+        }
+    }
+
+    void set(int index, int value) {
+        switch (index) {
+            case 0: man = value; break;
+            case 1: king = value; break;
+            case 2: advance = value; break;
+            case 3: center = value; break;
+            case 4: manThreat = value; break;
+            case 5: kingThreat = value; break;
+            case 6: mobility = value; break;
+            default: throw new IllegalArgumentException("Unknown weight " + index);
+        }
+    }
+
+    /**
+     * Номер веса по имени из {@link #NAMES} или -1, если такого веса нет.
+     */
+    static int indexOf(String name) {
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Копия весов (исполнитель берёт её в начале поиска).
+     */
+    EvalWeights copy() {
+        EvalWeights copy = new EvalWeights();
+        for (int i = 0; i < NAMES.length; i++) {
+            copy.set(i, get(i));
+        }
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < NAMES.length; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(NAMES[i]).append('=').append(get(i));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.checkers.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ход на доске 8x8.
+ * Цепочка взятий — один ход: capturedPieces перечисляет сбитые шашки, path — клетки приземления по порядку
+ * (последняя совпадает с toRow, toCol). Для хода без взятия path равен null.
+ * Ходы по одному прыжку из {@link Rules#getPossibleJumpsForPieceOnBoard} path не заполняют.
+ */
+public final class Move {
+    public int fromRow, fromCol, toRow, toCol;
+    public List<int[]> capturedPieces;
+    public List<int[]> path;
+
+    Move(int fromRow, int fromCol, int toRow, int toCol) {
+        this.fromRow = fromRow;
+        this.fromCol = fromCol;
+        this.toRow = toRow;
+        this.toCol = toCol;
+        this.capturedPieces = new ArrayList<>();
+    }
+
+    /**
+     * Проверяет, проходит ли другой ход через те же клетки (начало, приземления и конец).
+     */
+    public boolean sameSquares(Move other) {
+        if (fromRow != other.fromRow || fromCol != other.fromCol
+                || toRow != other.toRow || toCol != other.toCol) {
+            return false;
+        }
+        int length = (path == null) ? 0 : path.size();
+        if (length != ((other.path == null) ? 0 : other.path.size())) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (path.get(i)[0] != other.path.get(i)[0] || path.get(i)[1] != other.path.get(i)[1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.checkers.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Список ходов на примитивных массивах для поиска: ход хранится как int, рядом — маска сбитых фигур
+ * и упакованные клетки приземления цепочки. Один список выделяется на ply и переиспользуется весь поиск,
+ * поэтому генерация ходов в узле не создаёт объектов.
+ *
+ * Раскладка хода: биты 0–4 — клетка «куда», 5–9 — «откуда», бит 10 всегда взведён (ход не равен
+ * {@link TranspositionTable#NO_MOVE}), бит 11 — простая шашка проходит последний ряд и становится дамкой.
+ * Младшие 11 бит совпадают с {@link TranspositionTable#encodeMove}.
+ */
+final class MoveList {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final int VALID = 0x400;
+    private static final int PROMOTION = 0x800;
+    private static final int CODE_MASK = 0x7FF;
+
+    // --- Клетки приземления: по 5 бит на прыжок, до 12 прыжков в одном long ---
+    private static final int PATH_BITS = 5;
+
+    int[] moves = new int[INITIAL_CAPACITY];
+    int[] captured = new int[INITIAL_CAPACITY];
+    long[] paths = new long[INITIAL_CAPACITY];
+    int[] scores = new int[INITIAL_CAPACITY];
+    int size;
+
+    // --- Кодирование хода ---
+
+    static int encode(int from, int to, boolean promotes) {
+        return VALID | (from << 5) | to | (promotes ? PROMOTION : 0);
+    }
+
+    static int from(int move) {
+        return (move >> 5) & 31;
+    }
+
+    static int to(int move) {
+        return move & 31;
+    }
+
+    static boolean promotes(int move) {
+        return (move & PROMOTION) != 0;
+    }
+
+    /**
+     * Код хода для таблицы транспозиций, убийц и истории (без флага превращения).
+     */
+    static int code(int move) {
+        return move & CODE_MASK;
+    }
+
+    static long appendLanding(long path, int length, int square) {
+        return path | ((long) square << (length * PATH_BITS));
+    }
+
+    /**
+     * Клетки приземления хода-объекта, упакованные как в {@link #paths}; 0 для хода без взятия.
+     */
+    static long encodePath(Move move) {
+        long path = 0;
+        if (move.path != null) {
+            for (int i = 0; i < move.path.size(); i++) {
+                int[] square = move.path.get(i);
+                path = appendLanding(path, i, BitBoard.square(square[0], square[1]));
+            }
+        }
+        return path;
+    }
+
+    // --- Заполнение ---
+
+    void clear() {
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void add(int move, int capturedMask, long path) {
+        if (size == moves.length) {
+            grow();
+        }
+        moves[size] = move;
+        captured[size] = capturedMask;
+        paths[size] = path;
+        size++;
+    }
+
+    /**
+     * Меняет местами два хода вместе с их масками, путями и оценками упорядочивания.
+     */
+    void swap(int i, int j) {
+        int move = moves[i];
+        moves[i] = moves[j];
+        moves[j] = move;
+        int mask = captured[i];
+        captured[i] = captured[j];
+        captured[j] = mask;
+        long path = paths[i];
+        paths[i] = paths[j];
+        paths[j] = path;
+        int score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+
+    /**
+     * Переводит ход списка в объект для основной доски (на границе поиска, не в узлах).
+     */
+    Move toMove(int index) {
+        int move = moves[index];
+        int from = from(move);
+        int to = to(move);
+        Move result = new Move(BitBoard.row(from), BitBoard.col(from),
+                BitBoard.row(to), BitBoard.col(to));
+        int mask = captured[index];
+        if (mask != 0) {
+            int length = Integer.bitCount(mask);
+            result.path = new ArrayList<>(length);
+            for (int i = 0; i < length; i++) {
+                int square = (int) (paths[index] >>> (i * PATH_BITS)) & 31;
+                result.path.add(new int[]{BitBoard.row(square), BitBoard.col(square)});
+            }
+            for (int bits = mask; bits != 0; bits &= bits - 1) {
+                int square = Integer.numberOfTrailingZeros(bits);
+                result.capturedPieces.add(new int[]{BitBoard.row(square), BitBoard.col(square)});
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Удваивает ёмкость. Случается только в редких позициях с очень многими цепочками,
+     * после чего список этого ply остаётся большим до конца игры.
+     */
+    private void grow() {
+        int capacity = moves.length * 2;
+        moves = Arrays.copyOf(moves, capacity);
+        captured = Arrays.copyOf(captured, capacity);
+        paths = Arrays.copyOf(paths, capacity);
+        scores = Arrays.copyOf(scores, capacity);
+    }
+}
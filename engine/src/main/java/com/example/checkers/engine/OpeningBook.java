@@ -0,0 +1,139 @@
+package com.example.checkers.engine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Дебютная книга, построенная OpeningBookBuilder (инструменты движка). Файл отображается в память и не копируется в кучу.
+ *
+ * Формат файла: MAGIC, VERSION, число записей, затем записи по 24 байта (ключ Зобриста позиции,
+ * клетки приземления как в {@link MoveList#encodePath}, код хода как в {@link TranspositionTable#encodeMove}, вес),
+ * отсортированные по ключу. У одной позиции может быть несколько записей подряд — по одной на ход.
+ * Клетки приземления различают цепочки взятий с одинаковыми началом и концом.
+ */
+public final class OpeningBook {
+
+    /** Имя файла книги в каталоге данных приложения. */
+    public static final String FILE_NAME = "opening.book";
+
+    static final int MAGIC = 0x434B4F42; // "CKOB"
+    static final int VERSION = 2;
+
+    static final int HEADER_BYTES = 12;
+    static final int RECORD_BYTES = 24;
+
+    private final ByteBuffer data;
+    private final int records;
+
+    private OpeningBook(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.capacity() < HEADER_BYTES || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            throw new IOException("Not an opening book");
+        }
+        records = data.getInt(8);
+        if (records < 0 || HEADER_BYTES + (long) records * RECORD_BYTES > data.capacity()) {
+            throw new IOException("Corrupt opening book");
+        }
+    }
+
+    /**
+     * Открывает книгу из файла, отображая его в память. Возвращает null, если файла нет.
+     */
+    public static OpeningBook open(File file) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (RandomAccessFile input = new RandomAccessFile(file, "r");
+             FileChannel channel = input.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new OpeningBook(buffer);
+        }
+    }
+
+    public int size() {
+        return records;
+    }
+
+    /**
+     * Выбирает ход книги для позиции на доске board с ходом игрока player среди допустимых ходов moves
+     * случайно, пропорционально весам. Возвращает null, если позиции нет в книге или ни один её ход не подходит.
+     */
+    public Move choose(int[][] board, int player, List<Move> moves, Random random) {
+        return choose(new BitBoard(board, player), moves, random);
+    }
+
+    /**
+     * Выбирает ход книги для позиции среди допустимых ходов moves случайно, пропорционально весам.
+     * Возвращает null, если позиции нет в книге или ни один её ход не подходит.
+     */
+    Move choose(BitBoard position, List<Move> moves, Random random) {
+        int first = firstRecord(position.key);
+        int total = 0;
+        for (int i = first; i < records && key(i) == position.key; i++) {
+            if (find(moves, move(i), path(i)) != null) {
+                total += weight(i);
+            }
+        }
+        if (total <= 0) {
+            return null;
+        }
+        int pick = random.nextInt(total);
+        for (int i = first; i < records && key(i) == position.key; i++) {
+            Move move = find(moves, move(i), path(i));
+            if (move == null) continue;
+            pick -= weight(i);
+            if (pick < 0) {
+                return move;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Двоичный поиск первой записи с ключом не меньше key.
+     */
+    private int firstRecord(long key) {
+        int low = 0;
+        int high = records;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (key(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long key(int record) {
+        return data.getLong(HEADER_BYTES + record * RECORD_BYTES);
+    }
+
+    private long path(int record) {
+        return data.getLong(HEADER_BYTES + record * RECORD_BYTES + 8);
+    }
+
+    private int move(int record) {
+        return data.getInt(HEADER_BYTES + record * RECORD_BYTES + 16);
+    }
+
+    private int weight(int record) {
+        return Math.max(0, data.getInt(HEADER_BYTES + record * RECORD_BYTES + 20));
+    }
+
+    private static Move find(List<Move> moves, int code, long path) {
+        for (Move move : moves) {
+            if (TranspositionTable.encodeMove(move) == code && MoveList.encodePath(move) == path) {
+                return move;
+            }
+        }
+        return null;
+    }
+}
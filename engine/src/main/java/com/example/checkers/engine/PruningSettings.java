@@ -0,0 +1,51 @@
+package com.example.checkers.engine;
+
+/**
+ * Параметры выборочного поиска: сокращения поздних ходов (LMR) и отсечение бесперспективных ходов у листьев
+ * (futility pruning). Исполнители копируют их в начале каждого поиска, поэтому менять их между поисками безопасно.
+ * С выключенным выборочным поиском оценки совпадают с полным альфа-бета перебором на той же глубине.
+ */
+final class PruningSettings {
+
+    /** Общий выключатель обоих видов отсечения (выключается для проверки поиска). */
+    boolean enabled = true;
+
+    // --- Сокращения поздних ходов ---
+    /** Наименьшая оставшаяся глубина, на которой тихие ходы сокращаются. */
+    int lmrMinDepth = 3;
+    /** Номер хода в порядке перебора, начиная с которого ход сокращается на 1 ply. */
+    int lmrMinMoveIndex = 3;
+    /** Номер хода, начиная с которого сокращение — 2 ply (при глубине не меньше lmrDeepDepth). */
+    int lmrDeepMoveIndex = 8;
+    int lmrDeepDepth = 6;
+
+    // --- Отсечение у листьев ---
+    /** Наибольшая оставшаяся глубина, на которой тихие ходы могут отсекаться. */
+    int futilityMaxDepth = 2;
+    /** Запас на каждый ply оставшейся глубины (в десятых долях шашки). */
+    int futilityMargin = 25;
+
+    /**
+     * Параметры с выключенным выборочным поиском.
+     */
+    static PruningSettings disabled() {
+        PruningSettings settings = new PruningSettings();
+        settings.enabled = false;
+        return settings;
+    }
+
+    /**
+     * Копия параметров (исполнитель берёт её в начале поиска).
+     */
+    PruningSettings copy() {
+        PruningSettings copy = new PruningSettings();
+        copy.enabled = enabled;
+        copy.lmrMinDepth = lmrMinDepth;
+        copy.lmrMinMoveIndex = lmrMinMoveIndex;
+        copy.lmrDeepMoveIndex = lmrDeepMoveIndex;
+        copy.lmrDeepDepth = lmrDeepDepth;
+        copy.futilityMaxDepth = futilityMaxDepth;
+        copy.futilityMargin = futilityMargin;
+        return copy;
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.checkers.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Правила русских шашек на обычной доске 8x8 (int[8][8] с типами фигур), без состояния партии.
+ *
+ * Ходы бывают двух видов: полные ходы, где цепочка взятий — один ход ({@link #legalMoves}, как их видит поиск),
+ * и ходы по одному прыжку, как их делает человек: продолжение цепочки ищется после каждого прыжка
+ * ({@link #getAllPossibleMovesOnBoard} и генераторы для одной фигуры).
+ */
+public final class Rules {
+
+    // --- Типы шашек и игроков ---
+    public static final int EMPTY = 0;
+    public static final int BLACK_PIECE = 1;
+    public static final int WHITE_PIECE = 2;
+    public static final int BLACK_KING = 3;
+    public static final int WHITE_KING = 4;
+    public static final int BLACK_PLAYER = 1;
+    public static final int WHITE_PLAYER = 2;
+
+    private Rules() {
+    }
+
+    // --- Полные ходы ---
+
+    /**
+     * Возвращает все ходы игрока: полные цепочки взятий одним ходом, а если взятий нет — обычные ходы.
+     */
+    public static List<Move> legalMoves(int[][] board, int player) {
+        List<Move> moves = new ArrayList<>();
+        new BitBoard(board, player).generateMoves(player, moves);
+        return moves;
+    }
+
+    /**
+     * Возвращает новую доску после полного хода move (исходная не меняется).
+     * Шашка, прошедшая последний ряд посреди цепочки, остаётся дамкой.
+     */
+    public static int[][] play(int[][] board, Move move) {
+        int player = ownerOf(board[move.fromRow][move.fromCol]);
+        BitBoard position = new BitBoard(board, player);
+        position.makeMove(move);
+        return position.toBoard();
+    }
+
+    /**
+     * Возвращает соперника игрока.
+     */
+    public static int opponent(int player) {
+        return (player == BLACK_PLAYER) ? WHITE_PLAYER : BLACK_PLAYER;
+    }
+
+    // --- Ходы по одному прыжку ---
+
+    /**
+     * Возвращает все допустимые ходы игрока на доске board: взятия, а если их нет — обычные ходы.
+     */
+    public static List<Move> getAllPossibleMovesOnBoard(int[][] board, int player) {
+        List<Move> moves = new ArrayList<>();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                if (ownerOf(board[row][col]) == player) {
+                    moves.addAll(getPossibleJumpsForPieceOnBoard(board, row, col));
+                }
+            }
+        }
+        if (!moves.isEmpty()) {
+            return moves;
+        }
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                if (ownerOf(board[row][col]) == player) {
+                    moves.addAll(getPossibleRegularMovesForPieceOnBoard(board, row, col));
+                }
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Возвращает все возможные взятия (по одному прыжку) для фигуры на клетке row, col доски board.
+     */
+    public static List<Move> getPossibleJumpsForPieceOnBoard(int[][] board, int row, int col) {
+        List<Move> jumps = new ArrayList<>();
+        int piece = board[row][col];
+        int opponent = opponent(ownerOf(piece));
+        int square = BitBoard.square(row, col);
+        if (piece == BLACK_KING || piece == WHITE_KING) {
+            for (int dir = BitBoard.DOWN_RIGHT; dir <= BitBoard.UP_LEFT; dir++) {
+                int[] ray = BoardTables.RAY[square][dir];
+                int victim = firstOccupied(board, ray);
+                if (victim < 0 || ownerOf(pieceAt(board, ray[victim])) != opponent) continue;
+                for (int i = victim + 1; i < ray.length && pieceAt(board, ray[i]) == EMPTY; i++) {
+                    Move move = new Move(row, col, BoardTables.ROW[ray[i]], BoardTables.COL[ray[i]]);
+                    move.capturedPieces.add(new int[]{BoardTables.ROW[ray[victim]], BoardTables.COL[ray[victim]]});
+                    jumps.add(move);
+                }
+            }
+        } else {
+            for (int dir = BitBoard.DOWN_RIGHT; dir <= BitBoard.UP_LEFT; dir++) {
+                int over = BoardTables.NEIGHBOUR[square][dir];
+                int landing = BoardTables.LANDING[square][dir];
+                if (landing != BoardTables.NONE && ownerOf(pieceAt(board, over)) == opponent
+                        && pieceAt(board, landing) == EMPTY) {
+                    Move move = new Move(row, col, BoardTables.ROW[landing], BoardTables.COL[landing]);
+                    move.capturedPieces.add(new int[]{BoardTables.ROW[over], BoardTables.COL[over]});
+                    jumps.add(move);
+                }
+            }
+        }
+        return jumps;
+    }
+
+    /**
+     * Возвращает все обычные (не взятия) ходы для фигуры на клетке row, col доски board.
+     */
+    public static List<Move> getPossibleRegularMovesForPieceOnBoard(int[][] board, int row, int col) {
+        List<Move> moves = new ArrayList<>();
+        int piece = board[row][col];
+        int square = BitBoard.square(row, col);
+        if (piece == BLACK_KING || piece == WHITE_KING) {
+            for (int dir = BitBoard.DOWN_RIGHT; dir <= BitBoard.UP_LEFT; dir++) {
+                for (int target : BoardTables.RAY[square][dir]) {
+                    if (pieceAt(board, target) != EMPTY) break;
+                    moves.add(new Move(row, col, BoardTables.ROW[target], BoardTables.COL[target]));
+                }
+            }
+        } else {
+            int first = BoardTables.firstForward(ownerOf(piece));
+            for (int dir = first; dir <= first + 1; dir++) {
+                int target = BoardTables.NEIGHBOUR[square][dir];
+                if (target != BoardTables.NONE && pieceAt(board, target) == EMPTY) {
+                    moves.add(new Move(row, col, BoardTables.ROW[target], BoardTables.COL[target]));
+                }
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Проверяет, может ли фигура на клетке row, col выполнить хотя бы одно взятие.
+     */
+    public static boolean canJump(int[][] board, int row, int col) {
+        int piece = board[row][col];
+        int opponent = opponent(ownerOf(piece));
+        int square = BitBoard.square(row, col);
+        if (piece == BLACK_KING || piece == WHITE_KING) {
+            for (int dir = BitBoard.DOWN_RIGHT; dir <= BitBoard.UP_LEFT; dir++) {
+                int[] ray = BoardTables.RAY[square][dir];
+                int victim = firstOccupied(board, ray);
+                if (victim >= 0 && victim + 1 < ray.length
+                        && ownerOf(pieceAt(board, ray[victim])) == opponent && pieceAt(board, ray[victim + 1]) == EMPTY) {
+                    return true;
+                }
+            }
+        } else {
+            for (int dir = BitBoard.DOWN_RIGHT; dir <= BitBoard.UP_LEFT; dir++) {
+                int landing = BoardTables.LANDING[square][dir];
+                if (landing != BoardTables.NONE && ownerOf(pieceAt(board, BoardTables.NEIGHBOUR[square][dir])) == opponent
+                        && pieceAt(board, landing) == EMPTY) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Проверяет, есть ли у фигуры на клетке row, col хотя бы один обычный (не взятие) ход.
+     */
+    public static boolean hasRegularMove(int[][] board, int row, int col) {
+        int piece = board[row][col];
+        int square = BitBoard.square(row, col);
+        if (piece == BLACK_KING || piece == WHITE_KING) {
+            for (int dir = BitBoard.DOWN_RIGHT; dir <= BitBoard.UP_LEFT; dir++) {
+                int target = BoardTables.NEIGHBOUR[square][dir];
+                if (target != BoardTables.NONE && pieceAt(board, target) == EMPTY) {
+                    return true;
+                }
+            }
+        } else {
+            int first = BoardTables.firstForward(ownerOf(piece));
+            for (int dir = first; dir <= first + 1; dir++) {
+                int target = BoardTables.NEIGHBOUR[square][dir];
+                if (target != BoardTables.NONE && pieceAt(board, target) == EMPTY) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Возвращает игрока, которому принадлежит фигура, или EMPTY для пустой клетки.
+     */
+    public static int ownerOf(int piece) {
+        if (piece == BLACK_PIECE || piece == BLACK_KING) {
+            return BLACK_PLAYER;
+        }
+        return (piece == WHITE_PIECE || piece == WHITE_KING) ? WHITE_PLAYER : EMPTY;
+    }
+
+    private static int pieceAt(int[][] board, int square) {
+        return board[BoardTables.ROW[square]][BoardTables.COL[square]];
+    }
+
+    private static int firstOccupied(int[][] board, int[] ray) {
+        for (int i = 0; i < ray.length; i++) {
+            if (pieceAt(board, ray[i]) != EMPTY) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
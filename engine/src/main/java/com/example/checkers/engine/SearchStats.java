@@ -0,0 +1,106 @@
+package com.example.checkers.engine;
+
+/**
+ * Статистика одного поиска хода: сколько он перебрал, как глубоко зашёл, как работала таблица транспозиций
+ * и упорядочивание ходов, сколько занял времени. Неизменяемая запись; {@link #toJson} даёт её
+ * одной строкой JSON, чтобы выгружать поиски партии в файл JSON Lines и разбирать на компьютере.
+ *
+ * Выделения памяти поиском здесь не считаются: на устройстве нет дешёвого счётчика памяти потока.
+ * Их измеряют только на JVM — бенчмарками модуля :benchmark с профилировщиком gc из JMH.
+ */
+public final class SearchStats {
+
+    /** Число корзин гистограммы отсечений: номера ходов 0..CUTOFF_BUCKETS-2, последняя — все дальше. */
+    public static final int CUTOFF_BUCKETS = 8;
+
+    /** Позиция поиска текстом: сторона (w или b), двоеточие, 32 тёмные клетки от a8 к h1 (b, w, B, W, точка). */
+    public final String position;
+    /** Глубина последней завершённой итерации. */
+    public final int depth;
+    /** Наибольший ply, до которого дошёл поиск, вместе с поиском взятий за горизонтом. */
+    public final int selectiveDepth;
+    public final long nodes;
+    /** Время поиска (при размышлении — от его начала). */
+    public final long elapsedNanos;
+
+    // --- Таблица транспозиций ---
+    public final long ttProbes;
+    /** Пробы, нашедшие позицию в таблице. */
+    public final long ttHits;
+    /** Пробы, сразу вернувшие оценку из таблицы без перебора. */
+    public final long ttCutoffs;
+
+    /**
+     * Отсечения по beta по номеру хода в порядке перебора, на котором они случились.
+     * Чем больше их на ходе 0, тем лучше упорядочивание.
+     */
+    private final long[] cutoffsByMove;
+
+    SearchStats(String position, int depth, int selectiveDepth, long nodes, long elapsedNanos,
+                long ttProbes, long ttHits, long ttCutoffs, long[] cutoffsByMove) {
+        this.position = position;
+        this.depth = depth;
+        this.selectiveDepth = selectiveDepth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+        this.ttProbes = ttProbes;
+        this.ttHits = ttHits;
+        this.ttCutoffs = ttCutoffs;
+        this.cutoffsByMove = cutoffsByMove.clone();
+    }
+
+    public long getElapsedMs() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public long getNodesPerSecond() {
+        return (elapsedNanos > 0) ? (long) (nodes * 1e9 / elapsedNanos) : 0;
+    }
+
+    /** Доля проб таблицы, нашедших позицию. */
+    public double getTtHitRate() {
+        return (ttProbes > 0) ? (double) ttHits / ttProbes : 0;
+    }
+
+    /** Доля проб таблицы, закончившихся отсечением. */
+    public double getTtCutRate() {
+        return (ttProbes > 0) ? (double) ttCutoffs / ttProbes : 0;
+    }
+
+    /**
+     * Число отсечений по beta на ходе с номером index (0 — первый перебранный); последняя корзина
+     * {@link #CUTOFF_BUCKETS} - 1 собирает все более поздние ходы.
+     */
+    public long getCutoffs(int index) {
+        return cutoffsByMove[index];
+    }
+
+    /**
+     * Запись одной строкой JSON.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"position\":\"").append(position).append('"')
+                .append(",\"depth\":").append(depth)
+                .append(",\"selectiveDepth\":").append(selectiveDepth)
+                .append(",\"nodes\":").append(nodes)
+                .append(",\"elapsedMs\":").append(getElapsedMs())
+                .append(",\"nodesPerSecond\":").append(getNodesPerSecond())
+                .append(",\"ttProbes\":").append(ttProbes)
+                .append(",\"ttHits\":").append(ttHits)
+                .append(",\"ttCutoffs\":").append(ttCutoffs)
+                .append(",\"cutoffsByMove\":[");
+        for (int i = 0; i < cutoffsByMove.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(cutoffsByMove[i]);
+        }
+        return json.append("]}").toString();
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+}
@@ -0,0 +1,438 @@
+package com.example.checkers.engine;
+
+import java.util.Arrays;
+
+/**
+ * Состояние поиска одного потока: своя позиция и эвристики упорядочивания.
+ * Таблица транспозиций общая для всех исполнителей одного {@link Searcher}.
+ * Поиск — negamax на целых оценках с точки зрения стороны, чей ход.
+ */
+final class SearchWorker {
+
+    private static final int NODES_BETWEEN_CLOCK_CHECKS = 2048;
+    private static final int MAX_QUIESCENCE_PLY = BitBoard.MAX_PLY - 1;
+
+    // --- Приоритеты упорядочивания ходов ---
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int KILLER_SCORE = 1 << 29;
+    private static final int HISTORY_LIMIT = 1 << 20;
+    private static final int THREAT_SCORE = 1 << 22;
+
+    // --- Шкала оценок (в десятых долях шашки) ---
+    /** Граница окна, недостижимая никакой оценкой. */
+    static final int INFINITE = 1_000_000;
+    /** Выигрыш: у соперника нет ходов. Из него вычитается ply, чтобы короткий выигрыш был лучше длинного. */
+    static final int WIN_SCORE = 100_000;
+    private static final int WIN_THRESHOLD = WIN_SCORE - BitBoard.MAX_PLY;
+    /** Оценка позиции, выигранной по эндшпильной базе, без учёта оценки самой позиции. */
+    private static final int BITBASE_WIN_SCORE = 10_000;
+
+    private final Searcher owner;
+    private final TranspositionTable transpositionTable;
+    private final BitBoard position = new BitBoard(0, 0, 0, Rules.WHITE_PLAYER);
+    private final TranspositionTable.Entry entry = new TranspositionTable.Entry();
+
+    // --- Эвристики упорядочивания: ходы-убийцы по ply и таблица истории по (откуда, куда) ---
+    private final int[][] killers = new int[BitBoard.MAX_PLY][2];
+    private final int[] history = new int[32 * 32];
+
+    // --- Списки ходов по ply, выделенные один раз: в узлах поиска объекты не создаются ---
+    private final MoveList[] moveLists = new MoveList[BitBoard.MAX_PLY];
+
+    // --- Карты атак: для упорядочивания (атаки соперника) и для оценки (атаки обеих сторон) ---
+    private final AttackMap orderingAttacks = new AttackMap();
+    private final AttackMap ownAttacks = new AttackMap();
+    private final AttackMap opponentAttacks = new AttackMap();
+
+    private boolean exactDepthOnly;
+    private int bitbasePieces;
+    private PruningSettings pruning = PruningSettings.disabled();
+    private EvalWeights weights = new EvalWeights();
+
+    // --- Статистика поиска ({@link SearchStats}) ---
+    long nodes;
+    int selectiveDepth;
+    long ttProbes;
+    long ttHits;
+    long ttCutoffs;
+    final long[] cutoffsByMove = new long[SearchStats.CUTOFF_BUCKETS];
+
+    SearchWorker(Searcher owner, TranspositionTable transpositionTable) {
+        this.owner = owner;
+        this.transpositionTable = transpositionTable;
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Готовит исполнителя к новому поиску: сброс убийц и старение истории.
+     * При exactDepthOnly отсечения по таблице берутся только из записей той же глубины,
+     * и результат поиска не зависит от содержимого таблицы.
+     * Эндшпильная база опрашивается в позициях не больше чем с bitbasePieces фигурами (0 — не опрашивается).
+     * Параметры выборочного поиска pruning и веса оценки weights копируются и на время поиска не меняются.
+     */
+    void newSearch(boolean exactDepthOnly, int bitbasePieces, PruningSettings pruning, EvalWeights weights) {
+        this.exactDepthOnly = exactDepthOnly;
+        this.bitbasePieces = bitbasePieces;
+        this.pruning = pruning.copy();
+        this.weights = weights.copy();
+        this.nodes = 0;
+        this.selectiveDepth = 0;
+        this.ttProbes = 0;
+        this.ttHits = 0;
+        this.ttCutoffs = 0;
+        Arrays.fill(cutoffsByMove, 0);
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = TranspositionTable.NO_MOVE;
+            plyKillers[1] = TranspositionTable.NO_MOVE;
+        }
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 1;
+        }
+    }
+
+    /**
+     * Забывает историю ходов прошлых поисков.
+     */
+    void clearHistory() {
+        Arrays.fill(history, 0);
+    }
+
+    /**
+     * Оценивает ход корня с точки зрения стороны, делающей ход, в окне (alpha, beta).
+     * Оценка внутри окна точная, не выше alpha — верхняя граница, не ниже beta — нижняя.
+     */
+    int searchRootMove(BitBoard root, Move move, int depth, int nextPlayer, int alpha, int beta) {
+        position.load(root);
+        position.makeMove(move);
+        int score = -negamax(position, depth - 1, 1, -beta, -alpha, nextPlayer);
+        position.unmakeMove(move);
+        return score;
+    }
+
+    /**
+     * Negamax с альфа-бета отсечением и поиском главного варианта: первый ход ищется в полном окне,
+     * остальные — в нулевом окне (alpha, alpha + 1) и перепроверяются в полном, только если оказались лучше.
+     * Результаты сохраняются в таблице транспозиций и переиспользуются при повторном достижении позиции.
+     * Ходы перебираются в порядке: ход из таблицы, ходы-убийцы этого ply, затем по таблице истории.
+     *
+     * Выборочный поиск (если включён в {@link PruningSettings}) касается только тихих ходов вне главного варианта:
+     * поздние ходы ищутся на меньшей глубине и перепроверяются на полной, если превысили alpha,
+     * а у листьев ходы отбрасываются, когда статическая оценка с запасом всё равно не дотягивает до alpha.
+     * Первый ход и ходы с превращением в дамку не сокращаются и не отбрасываются.
+     */
+    int negamax(BitBoard position, int depth, int ply, int alpha, int beta, int player) {
+        if ((++nodes & (NODES_BETWEEN_CLOCK_CHECKS - 1)) == 0) {
+            owner.checkClock();
+        }
+        if (owner.stopped) {
+            return 0;
+        }
+        if (ply > selectiveDepth) {
+            selectiveDepth = ply;
+        }
+        if (Integer.bitCount(position.black | position.white) <= bitbasePieces) {
+            int result = owner.bitbase.probe(position.black, position.white, position.kings, player);
+            if (result != Bitbase.UNKNOWN) {
+                return bitbaseScore(position, result, player);
+            }
+        }
+        if (depth == 0) {
+            return quiesce(position, ply, alpha, beta, player);
+        }
+
+        boolean found = transpositionTable.probe(position.key, entry);
+        ttProbes++;
+        if (found) {
+            ttHits++;
+        }
+        int hashMove = found ? entry.move : TranspositionTable.NO_MOVE;
+        if (found && (entry.depth == depth || (entry.depth > depth && !exactDepthOnly))) {
+            int stored = fromTable(entry.score, ply);
+            if (entry.bound == TranspositionTable.BOUND_EXACT
+                    || (entry.bound == TranspositionTable.BOUND_LOWER && stored >= beta)
+                    || (entry.bound == TranspositionTable.BOUND_UPPER && stored <= alpha)) {
+                ttCutoffs++;
+                return stored;
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        boolean captures = position.generateMoves(player, moves);
+        if (moves.isEmpty()) {
+            return lossScore(ply);
+        }
+        int opponent = (player == Rules.BLACK_PLAYER) ? Rules.WHITE_PLAYER : Rules.BLACK_PLAYER;
+        orderMoves(position, moves, ply, hashMove, captures, opponent);
+
+        boolean selective = pruning.enabled && !captures && beta - alpha == 1;
+        // Отброшенный ход оценивается статической оценкой с запасом (не выше alpha): bestScore не должен
+        // опускаться ниже неё, иначе в таблицу уйдёт слишком низкая верхняя граница.
+        boolean futile = false;
+        int futilityScore = 0;
+        if (selective && depth <= pruning.futilityMaxDepth && Math.abs(alpha) < WIN_THRESHOLD) {
+            futilityScore = evaluatePosition(position, player) + pruning.futilityMargin * depth;
+            futile = futilityScore <= alpha;
+        }
+
+        int alphaOrig = alpha;
+        int bestScore = -INFINITE;
+        int bestMove = TranspositionTable.NO_MOVE;
+        for (int i = 0; i < moves.size; i++) {
+            int move = moves.moves[i];
+            boolean reducible = selective && i > 0 && !MoveList.promotes(move);
+            if (futile && reducible) {
+                bestScore = Math.max(bestScore, futilityScore);
+                continue;
+            }
+            position.makeMove(move, moves.captured[i]);
+            int score;
+            if (i == 0) {
+                score = -negamax(position, depth - 1, ply + 1, -beta, -alpha, opponent);
+            } else {
+                int reduction = reducible ? lateMoveReduction(depth, i) : 0;
+                score = -negamax(position, depth - 1 - reduction, ply + 1, -alpha - 1, -alpha, opponent);
+                if (reduction > 0 && score > alpha) {
+                    score = -negamax(position, depth - 1, ply + 1, -alpha - 1, -alpha, opponent);
+                }
+                if (score > alpha && score < beta) {
+                    score = -negamax(position, depth - 1, ply + 1, -beta, -alpha, opponent);
+                }
+            }
+            position.unmakeMove(move);
+            if (owner.stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+            if (score > alpha) {
+                alpha = score;
+                if (alpha >= beta) {
+                    cutoffsByMove[Math.min(i, SearchStats.CUTOFF_BUCKETS - 1)]++;
+                    if (!captures) {
+                        rememberCutoff(move, depth, ply);
+                    }
+                    break;
+                }
+            }
+        }
+
+        int bound;
+        if (bestScore <= alphaOrig) {
+            bound = TranspositionTable.BOUND_UPPER;
+        } else if (bestScore >= beta) {
+            bound = TranspositionTable.BOUND_LOWER;
+        } else {
+            bound = TranspositionTable.BOUND_EXACT;
+        }
+        transpositionTable.store(position.key, depth, bound, toTable(bestScore, ply), MoveList.code(bestMove));
+        return bestScore;
+    }
+
+    /**
+     * Сокращение глубины для i-го по порядку тихого хода узла с оставшейся глубиной depth.
+     */
+    private int lateMoveReduction(int depth, int i) {
+        if (depth < pruning.lmrMinDepth || i < pruning.lmrMinMoveIndex) {
+            return 0;
+        }
+        return (depth >= pruning.lmrDeepDepth && i >= pruning.lmrDeepMoveIndex) ? 2 : 1;
+    }
+
+    /**
+     * Поиск за горизонтом: пока у стороны, чья очередь, есть взятия, перебирает только их
+     * (взятие обязательно, поэтому оценки «без хода» нет), и оценивает позицию лишь после размена.
+     * Таблица транспозиций здесь не используется.
+     */
+    private int quiesce(BitBoard position, int ply, int alpha, int beta, int player) {
+        if (!position.hasJumps(player)) {
+            return (position.mobility(player) == 0) ? lossScore(ply) : evaluatePosition(position, player);
+        }
+        if (ply >= MAX_QUIESCENCE_PLY) {
+            return evaluatePosition(position, player);
+        }
+        if ((++nodes & (NODES_BETWEEN_CLOCK_CHECKS - 1)) == 0) {
+            owner.checkClock();
+        }
+        if (owner.stopped) {
+            return 0;
+        }
+        if (ply > selectiveDepth) {
+            selectiveDepth = ply;
+        }
+
+        MoveList captures = moveLists[ply];
+        position.generateJumps(player, captures);
+        int opponent = (player == Rules.BLACK_PLAYER) ? Rules.WHITE_PLAYER : Rules.BLACK_PLAYER;
+        int bestScore = -INFINITE;
+        for (int i = 0; i < captures.size; i++) {
+            int move = captures.moves[i];
+            position.makeMove(move, captures.captured[i]);
+            int score = -quiesce(position, ply + 1, -beta, -alpha, opponent);
+            position.unmakeMove(move);
+            bestScore = Math.max(bestScore, score);
+            alpha = Math.max(alpha, score);
+            if (alpha >= beta || owner.stopped) {
+                break;
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * Оценка позиции, решённой эндшпильной базой, для стороны player. Ничья — 0. К выигрышу и проигрышу
+     * добавляется обычная оценка, чтобы среди выигранных позиций поиск шёл к тем, где у соперника
+     * меньше фигур, и реализовывал перевес.
+     */
+    private int bitbaseScore(BitBoard position, int result, int player) {
+        if (result == Bitbase.DRAW) {
+            return 0;
+        }
+        return ((result == Bitbase.WIN) ? BITBASE_WIN_SCORE : -BITBASE_WIN_SCORE) + evaluatePosition(position, player);
+    }
+
+    /**
+     * Оценка позиции, в которой у стороны, чей ход, нет ходов (она проиграла) на данном ply.
+     */
+    private static int lossScore(int ply) {
+        return -(WIN_SCORE - ply);
+    }
+
+    /**
+     * Оценки выигрыша хранятся в таблице относительно узла, а не корня, чтобы не зависеть от пути к позиции.
+     */
+    private static int toTable(int score, int ply) {
+        if (score >= WIN_THRESHOLD) {
+            return score + ply;
+        }
+        return (score <= -WIN_THRESHOLD) ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN_THRESHOLD) {
+            return score - ply;
+        }
+        return (score <= -WIN_THRESHOLD) ? score + ply : score;
+    }
+
+    /**
+     * Сортирует ходы вставками по приоритету прямо в списке этого ply.
+     * Взятия обязательны и не бывают убийцами, поэтому для них действуют только ход из таблицы и история.
+     * Тихие ходы после убийц сравниваются по карте атак соперника: уход атакованной фигуры на безопасную
+     * клетку поднимается, ход на атакованную клетку опускается, внутри групп — по истории.
+     */
+    private void orderMoves(BitBoard position, MoveList moves, int ply, int hashMove, boolean captures, int opponent) {
+        int[] scores = moves.scores;
+        int[] plyKillers = killers[ply];
+        int attacked = 0;
+        if (!captures) {
+            orderingAttacks.compute(position, opponent);
+            attacked = orderingAttacks.attacked();
+        }
+        for (int i = 0; i < moves.size; i++) {
+            int move = moves.moves[i];
+            int code = MoveList.code(move);
+            int score;
+            if (code == hashMove) {
+                score = HASH_MOVE_SCORE;
+            } else if (!captures && code == plyKillers[0]) {
+                score = KILLER_SCORE;
+            } else if (!captures && code == plyKillers[1]) {
+                score = KILLER_SCORE - 1;
+            } else {
+                score = history[code & 0x3FF];
+                if (!captures) {
+                    boolean fromAttacked = (attacked & (1 << MoveList.from(move))) != 0;
+                    boolean toAttacked = (attacked & (1 << MoveList.to(move))) != 0;
+                    if (toAttacked) {
+                        score -= THREAT_SCORE;
+                    } else if (fromAttacked) {
+                        score += THREAT_SCORE;
+                    }
+                }
+            }
+            scores[i] = score;
+            for (int j = i; j > 0 && scores[j - 1] < scores[j]; j--) {
+                moves.swap(j, j - 1);
+            }
+        }
+    }
+
+    /**
+     * Запоминает тихий ход, вызвавший отсечение: делает его убийцей на этом ply и повышает его историю.
+     */
+    private void rememberCutoff(int move, int depth, int ply) {
+        int code = MoveList.code(move);
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != code) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = code;
+        }
+        int index = code & 0x3FF;
+        history[index] += depth * depth;
+        if (history[index] > HISTORY_LIMIT) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Оценивает позицию для стороны player (материал, продвижение, центральность, угрозы, мобильность)
+     * с весами {@link EvalWeights}; по умолчанию дамка 3, шашка 1, продвижение 0.2 за ряд, центр 0.3 — в десятых долях.
+     * Число шашек и дамок, продвижение и центр позиция ведёт сама при каждом ходе ({@link BitBoard#TERMS}).
+     * Угрозы берутся из карт атак: каждая атака на шашку по умолчанию стоит 0.3, на дамку — 0.6.
+     */
+    int evaluatePosition(BitBoard position, int player) {
+        int opponent = (player == Rules.BLACK_PLAYER) ? Rules.WHITE_PLAYER : Rules.BLACK_PLAYER;
+        int ownScore = materialScore(position, player);
+        int opponentScore = materialScore(position, opponent);
+        ownAttacks.compute(position, player);
+        opponentAttacks.compute(position, opponent);
+        int threatBalance = threatPenalty(position, opponentAttacks, opponent) - threatPenalty(position, ownAttacks, player);
+        int mobilityBonus = weights.mobility * (position.mobility(player) - position.mobility(opponent));
+        return (ownScore - opponentScore) - threatBalance + mobilityBonus;
+    }
+
+    /**
+     * Раскладывает оценку позиции для стороны player на члены по {@link EvalWeights#NAMES}: разности числа
+     * шашек, дамок, продвижения, фигур в центре, атак на шашки и дамки соперника и мобильности.
+     * Оценка линейна по весам: evaluatePosition равна сумме weights.get(i) * terms[i].
+     */
+    void evaluationTerms(BitBoard position, int player, int[] terms) {
+        int opponent = (player == Rules.BLACK_PLAYER) ? Rules.WHITE_PLAYER : Rules.BLACK_PLAYER;
+        int own = position.pieces(player);
+        int other = position.pieces(opponent);
+        ownAttacks.compute(position, player);
+        opponentAttacks.compute(position, opponent);
+        terms[0] = position.menCount(player) - position.menCount(opponent);
+        terms[1] = position.kingCount(player) - position.kingCount(opponent);
+        terms[2] = position.advancement(player) - position.advancement(opponent);
+        terms[3] = position.centerCount(player) - position.centerCount(opponent);
+        terms[4] = ownAttacks.total(other & ~position.kings) - opponentAttacks.total(own & ~position.kings);
+        terms[5] = ownAttacks.total(other & position.kings) - opponentAttacks.total(own & position.kings);
+        terms[6] = position.mobility(player) - position.mobility(opponent);
+    }
+
+    /**
+     * Материал, продвижение и центр игрока player по весам оценки.
+     */
+    private int materialScore(BitBoard position, int player) {
+        return weights.man * position.menCount(player)
+                + weights.king * position.kingCount(player)
+                + weights.advance * position.advancement(player)
+                + weights.center * position.centerCount(player);
+    }
+
+    /**
+     * Штраф фигурам соперника игрока attacker за все атаки на них по карте attacks.
+     */
+    private int threatPenalty(BitBoard position, AttackMap attacks, int attacker) {
+        int victims = position.opponents(attacker);
+        return weights.manThreat * attacks.total(victims & ~position.kings)
+                + weights.kingThreat * attacks.total(victims & position.kings);
+    }
+}
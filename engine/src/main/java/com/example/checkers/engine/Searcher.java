@@ -0,0 +1,518 @@
+package com.example.checkers.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Поиск лучшего хода ИИ: итеративное углубление поверх negamax с поиском главного варианта,
+ * окнами стремления вокруг оценки прошлой итерации и таблицей транспозиций, общей для всех потоков.
+ * Несколько потоков работают в одном из режимов: разделение ходов корня или Lazy SMP (помощники ищут ту же
+ * позицию на сдвинутых глубинах и наполняют таблицу). Разделение корня даёт ту же оценку и тот же набор лучших
+ * ходов, что и один поток, только при поиске до фиксированной глубины без ограничения времени и с выключенным
+ * выборочным поиском ({@link #setPruning}). С выборочным поиском, как в приложении, сокращения зависят от истории
+ * исполнителей, и результат может меняться от запуска к запуску.
+ * При одном потоке поиск идёт в вызывающем потоке без пула.
+ * Работает на битовой позиции и не зависит от Android.
+ */
+final class Searcher {
+
+    /** Максимальная глубина итеративного углубления. */
+    static final int MAX_DEPTH = 64;
+
+    // --- Режимы многопоточного поиска ---
+    static final int MODE_ROOT_SPLIT = 0;
+    static final int MODE_LAZY_SMP = 1;
+
+    private static final int STABLE_ITERATIONS = 3;
+
+    /** Начальная полуширина окна стремления (в десятых долях шашки); при выходе за окно удваивается. */
+    private static final int ASPIRATION_WINDOW = 5;
+
+    private final Random random;
+    private final int threads;
+    private final int mode;
+    private final ForkJoinPool pool;
+    private final TranspositionTable transpositionTable;
+    private final SearchWorker[] workers;
+    private final BlockingQueue<SearchWorker> idleWorkers;
+    final Bitbase bitbase;
+    private volatile PruningSettings pruning = new PruningSettings();
+    private volatile EvalWeights weights = new EvalWeights();
+
+    // --- Состояние текущего поиска (общее для потоков) ---
+    private volatile long startNanos;
+    private volatile long budgetNanos;
+    private volatile boolean pondering;
+    volatile boolean stopped;
+    private int sharedBest;
+    private int previousScore;
+    private int completedDepth;
+    private List<Move> completedBestMoves = new ArrayList<>();
+    private long nodes;
+    private volatile SearchStats lastStats;
+
+    /**
+     * Создаёт поиск на threads потоков в заданном режиме с общей таблицей транспозиций на hashSizeMb мегабайт.
+     * Эндшпильная база bitbase может отсутствовать (null).
+     */
+    Searcher(int hashSizeMb, int threads, int mode, Random random, Bitbase bitbase) {
+        this.random = random;
+        this.bitbase = bitbase;
+        this.threads = Math.max(1, threads);
+        this.mode = mode;
+        this.pool = (this.threads > 1) ? new ForkJoinPool(this.threads) : null;
+        this.transpositionTable = new TranspositionTable(hashSizeMb);
+        this.workers = new SearchWorker[this.threads];
+        this.idleWorkers = new ArrayBlockingQueue<>(this.threads);
+        for (int i = 0; i < this.threads; i++) {
+            workers[i] = new SearchWorker(this, transpositionTable);
+        }
+        // В режиме Lazy SMP ходы корня ищет только первый исполнитель, остальные заняты помощниками.
+        int rootWorkers = (mode == MODE_LAZY_SMP) ? 1 : this.threads;
+        for (int i = 0; i < rootWorkers; i++) {
+            idleWorkers.add(workers[i]);
+        }
+    }
+
+    /**
+     * Задаёт параметры выборочного поиска; действуют со следующего поиска.
+     * Сокращения зависят от порядка ходов, то есть от истории исполнителя, поэтому при разделении корня
+     * результат перестаёт совпадать с однопоточным: для проверки выборочный поиск выключается.
+     */
+    void setPruning(PruningSettings pruning) {
+        this.pruning = pruning;
+    }
+
+    /**
+     * Задаёт веса статической оценки; действуют со следующего поиска.
+     */
+    void setEvalWeights(EvalWeights weights) {
+        this.weights = weights;
+    }
+
+    /**
+     * Ищет лучший ход на глубину 1, 2, 3... пока не кончится бюджет времени или не будет достигнута maxDepth.
+     * Незавершённая итерация отбрасывается: используется результат последней полной итерации.
+     * Поиск заканчивается раньше, если лучший ход не меняется несколько итераций подряд.
+     */
+    Move search(int[][] board, int player, List<Move> rootMoves, int maxDepth, long budgetMs) {
+        return search(new BitBoard(board, player), player, rootMoves, maxDepth, budgetMs);
+    }
+
+    /**
+     * То же для уже построенной битовой позиции.
+     */
+    Move search(BitBoard position, int player, List<Move> rootMoves, int maxDepth,
+                             long budgetMs) {
+        this.startNanos = System.nanoTime();
+        this.budgetNanos = budgetMs * 1_000_000L;
+        this.pondering = false;
+        return run(position, player, rootMoves, maxDepth);
+    }
+
+    /**
+     * Включает режим размышления: часы не ограничивают поиск до {@link #ponderHit}.
+     * Вызывается до отправки {@link #ponder} в поток поиска, чтобы ponderHit не мог его опередить.
+     */
+    void startPondering() {
+        this.startNanos = System.nanoTime();
+        this.budgetNanos = Long.MAX_VALUE;
+        this.pondering = true;
+    }
+
+    /**
+     * Размышляет над позицией, ожидаемой после ответа соперника, пока не будет вызван {@link #stop}
+     * или {@link #ponderHit}, после которого действует обычный бюджет, отсчитанный от начала размышления.
+     */
+    Move ponder(BitBoard position, int player, List<Move> rootMoves, int maxDepth) {
+        return run(position, player, rootMoves, maxDepth);
+    }
+
+    /**
+     * Сообщает, что соперник сделал ожидаемый ход: размышление становится обычным поиском с данным бюджетом.
+     * Время, уже потраченное на размышление, входит в бюджет.
+     */
+    void ponderHit(long budgetMs) {
+        budgetNanos = budgetMs * 1_000_000L;
+        pondering = false;
+    }
+
+    /**
+     * Возвращает лучший ход для позиции из таблицы транспозиций или NO_MOVE, если позиции в таблице нет.
+     */
+    int hashMove(BitBoard position) {
+        TranspositionTable.Entry entry = new TranspositionTable.Entry();
+        return transpositionTable.probe(position.key, entry) ? entry.move : TranspositionTable.NO_MOVE;
+    }
+
+    private Move run(BitBoard position, int player, List<Move> rootMoves, int maxDepth) {
+        Move best = iterate(position, player, rootMoves, maxDepth);
+        lastStats = collectStats(position, player);
+        return best;
+    }
+
+    private Move iterate(BitBoard position, int player, List<Move> rootMoves, int maxDepth) {
+        this.stopped = false;
+        this.nodes = 0;
+        this.completedDepth = 0;
+        this.completedBestMoves = new ArrayList<>();
+        boolean lazySmp = (mode == MODE_LAZY_SMP && pool != null);
+        transpositionTable.newSearch();
+        // База отсекает только упрощения: в позиции, которая сама есть в базе, опрос каждого узла
+        // дал бы равные оценки всем выигрывающим ходам и лишил бы поиск цели. Там база лишь отбирает ходы корня.
+        int rootPieces = Integer.bitCount(position.black | position.white);
+        int bitbasePieces = (bitbase == null) ? 0 : Math.min(bitbase.maxPieces(), rootPieces - 1);
+        for (SearchWorker worker : workers) {
+            worker.newSearch(!lazySmp, bitbasePieces, pruning, weights);
+        }
+        if (bitbase != null && rootPieces <= bitbase.maxPieces()) {
+            rootMoves = keepBestByBitbase(position, player, rootMoves);
+        }
+
+        if (rootMoves.size() == 1) {
+            return rootMoves.get(0);
+        }
+
+        List<Future<Integer>> helpers = lazySmp ? startHelpers(position, player, rootMoves, maxDepth) : null;
+        List<Move> orderedMoves = new ArrayList<>(rootMoves);
+        List<Move> bestMoves = null;
+        Move previousBest = null;
+        int stableIterations = 0;
+
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            List<Move> iterationBest = searchRoot(position, player, orderedMoves, depth);
+            if (stopped || iterationBest.isEmpty()) {
+                break;
+            }
+            bestMoves = iterationBest;
+            completedDepth = depth;
+            completedBestMoves = iterationBest;
+            previousScore = sharedBest;
+
+            // Лучший ход итерации просматривается первым на следующей глубине.
+            Move principal = iterationBest.get(0);
+            orderedMoves.remove(principal);
+            orderedMoves.add(0, principal);
+            stableIterations = (principal == previousBest) ? stableIterations + 1 : 0;
+            previousBest = principal;
+
+            if (pondering) {
+                continue;
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            if (elapsedNanos > this.budgetNanos / 2) {
+                break;
+            }
+            if (stableIterations >= STABLE_ITERATIONS && elapsedNanos > this.budgetNanos / 4) {
+                break;
+            }
+        }
+
+        if (helpers != null) {
+            stopped = true;
+            for (Future<Integer> helper : helpers) {
+                await(helper);
+            }
+        }
+        return bestMoves == null ? null : bestMoves.get(random.nextInt(bestMoves.size()));
+    }
+
+    /**
+     * Сводит статистику исполнителей в запись о закончившемся поиске.
+     */
+    private SearchStats collectStats(BitBoard position, int player) {
+        int selectiveDepth = 0;
+        long ttProbes = 0;
+        long ttHits = 0;
+        long ttCutoffs = 0;
+        long[] cutoffsByMove = new long[SearchStats.CUTOFF_BUCKETS];
+        for (SearchWorker worker : workers) {
+            nodes += worker.nodes;
+            selectiveDepth = Math.max(selectiveDepth, worker.selectiveDepth);
+            ttProbes += worker.ttProbes;
+            ttHits += worker.ttHits;
+            ttCutoffs += worker.ttCutoffs;
+            for (int i = 0; i < cutoffsByMove.length; i++) {
+                cutoffsByMove[i] += worker.cutoffsByMove[i];
+            }
+        }
+        return new SearchStats(position.toText(player), completedDepth, selectiveDepth, nodes,
+                System.nanoTime() - startNanos, ttProbes, ttHits, ttCutoffs, cutoffsByMove);
+    }
+
+    /**
+     * Оставляет ходы корня с лучшим по эндшпильной базе результатом: выигрывающие, если они есть, иначе ничейные.
+     * Если какой-то из позиций после хода нет в базе, список не меняется.
+     */
+    private List<Move> keepBestByBitbase(BitBoard root, int player, List<Move> rootMoves) {
+        int opponent = (player == Rules.BLACK_PLAYER) ? Rules.WHITE_PLAYER : Rules.BLACK_PLAYER;
+        BitBoard position = new BitBoard(root.black, root.white, root.kings, player);
+        int[] outcomes = new int[rootMoves.size()];
+        int best = Bitbase.LOSS;
+        for (int i = 0; i < rootMoves.size(); i++) {
+            position.makeMove(rootMoves.get(i));
+            int reply = (position.pieces(opponent) == 0) ? Bitbase.LOSS
+                    : bitbase.probe(position.black, position.white, position.kings, opponent);
+            position.unmakeMove(rootMoves.get(i));
+            if (reply == Bitbase.UNKNOWN) {
+                return rootMoves;
+            }
+            // Результат соперника после хода, перевёрнутый на сторону, делающую ход.
+            outcomes[i] = (reply == Bitbase.LOSS) ? Bitbase.WIN : (reply == Bitbase.WIN) ? Bitbase.LOSS : Bitbase.DRAW;
+            if (outcomes[i] == Bitbase.WIN) {
+                best = Bitbase.WIN;
+            } else if (outcomes[i] == Bitbase.DRAW && best != Bitbase.WIN) {
+                best = Bitbase.DRAW;
+            }
+        }
+        List<Move> kept = new ArrayList<>();
+        for (int i = 0; i < rootMoves.size(); i++) {
+            if (outcomes[i] == best) {
+                kept.add(rootMoves.get(i));
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Забывает всё, что поиск узнал раньше: таблицу транспозиций и историю ходов исполнителей.
+     * Следующий поиск идёт так же, как на только что созданном Searcher.
+     */
+    void newGame() {
+        transpositionTable.clear();
+        for (SearchWorker worker : workers) {
+            worker.clearHistory();
+        }
+    }
+
+    int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Оценка последней завершённой итерации со стороны, делающей ход. Не определена, если итераций не было
+     * (единственный ход корня или поиск остановлен до конца первой итерации).
+     */
+    int getCompletedScore() {
+        return previousScore;
+    }
+
+    /**
+     * Ходы корня с лучшей оценкой последней завершённой итерации; пусто, если итераций не было.
+     */
+    List<Move> getCompletedBestMoves() {
+        return completedBestMoves;
+    }
+
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Статистика последнего закончившегося поиска или размышления; null, если поисков ещё не было.
+     */
+    SearchStats getLastStats() {
+        return lastStats;
+    }
+
+    int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Запускает помощников Lazy SMP: каждый, кроме первого исполнителя, самостоятельно углубляется
+     * по всем ходам корня, начиная с чётной или нечётной глубины и со своего хода, и пишет в общую таблицу.
+     * Их результаты не используются напрямую — они ускоряют основной поток через таблицу транспозиций.
+     */
+    private List<Future<Integer>> startHelpers(BitBoard position, int player, List<Move> rootMoves, int maxDepth) {
+        List<Move> moves = new ArrayList<>(rootMoves);
+        int nextPlayer = (player == Rules.BLACK_PLAYER) ? Rules.WHITE_PLAYER : Rules.BLACK_PLAYER;
+        List<Future<Integer>> helpers = new ArrayList<>();
+        for (int i = 1; i < threads; i++) {
+            SearchWorker worker = workers[i];
+            int helperIndex = i;
+            helpers.add(pool.submit(() -> {
+                int best = -SearchWorker.INFINITE;
+                for (int depth = 1 + (helperIndex & 1); depth <= maxDepth && !stopped; depth++) {
+                    best = -SearchWorker.INFINITE;
+                    for (int j = 0; j < moves.size() && !stopped; j++) {
+                        Move move = moves.get((j + helperIndex) % moves.size());
+                        best = Math.max(best, worker.searchRootMove(position, move, depth, nextPlayer,
+                                best, SearchWorker.INFINITE));
+                    }
+                }
+                return best;
+            }));
+        }
+        return helpers;
+    }
+
+    /**
+     * Останавливает поиск, если истёк бюджет времени или поток поиска прерван.
+     * Вызывается исполнителями периодически.
+     */
+    void checkClock() {
+        if ((!pondering && System.nanoTime() - startNanos > budgetNanos) || Thread.currentThread().isInterrupted()) {
+            stopped = true;
+        }
+    }
+
+    /**
+     * Прерывает идущий поиск из другого потока; search вернёт результат последней завершённой итерации.
+     */
+    void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Освобождает потоки пула. После вызова поиск использовать нельзя.
+     */
+    void close() {
+        stopped = true;
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Оценивает все ходы корня на заданную глубину и возвращает ходы с лучшей оценкой в исходном порядке.
+     * Первый ход ищется отдельно в окне стремления и задаёт лучшую оценку, остальные — параллельно
+     * в нулевом окне под общей лучшей оценкой. Ход, не уступивший ей, перепроверяется в окне без верхней
+     * границы, поэтому равные лучшему ходы получают точную оценку, и набор лучших ходов не зависит
+     * от порядка завершения потоков.
+     */
+    private List<Move> searchRoot(BitBoard position, int player, List<Move> moves, int depth) {
+        int nextPlayer = (player == Rules.BLACK_PLAYER) ? Rules.WHITE_PLAYER : Rules.BLACK_PLAYER;
+        int[] scores = new int[moves.size()];
+        sharedBest = -SearchWorker.INFINITE;
+
+        scores[0] = searchFirstMove(position, moves.get(0), depth, nextPlayer);
+        if (pool == null || mode == MODE_LAZY_SMP) {
+            for (int i = 1; i < moves.size() && !stopped; i++) {
+                scores[i] = searchRootMove(position, moves.get(i), depth, nextPlayer);
+            }
+        } else {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int i = 1; i < moves.size(); i++) {
+                Move move = moves.get(i);
+                tasks.add(() -> searchRootMove(position, move, depth, nextPlayer));
+            }
+            List<Future<Integer>> results = pool.invokeAll(tasks);
+            for (int i = 1; i < moves.size(); i++) {
+                scores[i] = await(results.get(i - 1));
+            }
+        }
+
+        List<Move> bestMoves = new ArrayList<>();
+        if (stopped) {
+            return bestMoves;
+        }
+        for (int i = 0; i < moves.size(); i++) {
+            if (scores[i] == sharedBest) {
+                bestMoves.add(moves.get(i));
+            }
+        }
+        return bestMoves;
+    }
+
+    /**
+     * Ищет первый (главный) ход корня в окне вокруг оценки прошлой итерации, расширяя окно
+     * в сторону выхода, пока оценка не окажется внутри. На первой итерации окно полное.
+     */
+    private int searchFirstMove(BitBoard position, Move move, int depth, int nextPlayer) {
+        SearchWorker worker = takeWorker();
+        if (worker == null) {
+            return -SearchWorker.INFINITE;
+        }
+        try {
+            int delta = ASPIRATION_WINDOW;
+            int alpha = (depth > 1) ? previousScore - delta : -SearchWorker.INFINITE;
+            int beta = (depth > 1) ? previousScore + delta : SearchWorker.INFINITE;
+            while (true) {
+                int score = worker.searchRootMove(position, move, depth, nextPlayer, alpha, beta);
+                if (stopped) {
+                    return -SearchWorker.INFINITE;
+                }
+                delta *= 2;
+                if (score <= alpha) {
+                    alpha = Math.max(-SearchWorker.INFINITE, score - delta);
+                } else if (score >= beta) {
+                    beta = Math.min(SearchWorker.INFINITE, score + delta);
+                } else {
+                    synchronized (this) {
+                        sharedBest = score;
+                    }
+                    return score;
+                }
+            }
+        } finally {
+            idleWorkers.add(worker);
+        }
+    }
+
+    /**
+     * Ищет один из остальных ходов корня на свободном исполнителе и обновляет общую лучшую оценку.
+     * Ход хуже лучшего к началу поиска оценкой не нужен и получает -INFINITE.
+     */
+    private int searchRootMove(BitBoard position, Move move, int depth, int nextPlayer) {
+        SearchWorker worker = takeWorker();
+        if (worker == null) {
+            return -SearchWorker.INFINITE;
+        }
+        try {
+            int best = currentBest();
+            int score = worker.searchRootMove(position, move, depth, nextPlayer, best - 1, best);
+            if (score >= best && !stopped) {
+                score = worker.searchRootMove(position, move, depth, nextPlayer, best - 1, SearchWorker.INFINITE);
+            }
+            if (stopped || score < best) {
+                return -SearchWorker.INFINITE;
+            }
+            synchronized (this) {
+                if (score > sharedBest) {
+                    sharedBest = score;
+                }
+            }
+            return score;
+        } finally {
+            idleWorkers.add(worker);
+        }
+    }
+
+    /**
+     * Берёт свободного исполнителя и ждёт, если все заняты. Исполнителей корня столько же, сколько потоков пула,
+     * так что ждать обычно не приходится; ожидание страхует от лишнего потока, которым ForkJoinPool может
+     * заменить заблокированный. Возвращает null и останавливает поиск, если поток прерван.
+     */
+    private SearchWorker takeWorker() {
+        try {
+            return idleWorkers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopped = true;
+            return null;
+        }
+    }
+
+    private synchronized int currentBest() {
+        return sharedBest;
+    }
+
+    private static int await(Future<Integer> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -SearchWorker.INFINITE;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
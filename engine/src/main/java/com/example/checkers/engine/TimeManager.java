@@ -0,0 +1,34 @@
+package com.example.checkers.engine;
+
+/**
+ * Распределение времени на ход ИИ по оставшемуся времени на часах и выбранному контролю.
+ */
+public final class TimeManager {
+
+    /** Бюджет хода, если партия играется без ограничения времени. */
+    static final long UNLIMITED_BUDGET_MS = 3_000;
+
+    /** Сколько ходов ещё предстоит сделать ИИ (оценка для деления остатка времени). */
+    private static final int MOVES_TO_GO = 30;
+    /** Доля общего лимита, которую можно потратить на один ход. */
+    private static final int LIMIT_DIVISOR = 20;
+    private static final long MIN_BUDGET_MS = 50;
+    private static final long MAX_BUDGET_MS = 5_000;
+
+    private TimeManager() {
+    }
+
+    /**
+     * Возвращает бюджет времени на ход в миллисекундах.
+     * Нижняя граница {@code MIN_BUDGET_MS} применяется до ограничения четвертью остатка: бюджет никогда
+     * не превышает четверти остатка, чтобы ИИ не проигрывал по времени, даже когда на часах меньше 200 мс.
+     */
+    public static long moveBudget(long timeLeftMs, long timeLimitMs) {
+        if (timeLimitMs <= 0 || timeLeftMs < 0) {
+            return UNLIMITED_BUDGET_MS;
+        }
+        long budget = Math.min(timeLeftMs / MOVES_TO_GO, timeLimitMs / LIMIT_DIVISOR);
+        budget = Math.max(MIN_BUDGET_MS, Math.min(budget, MAX_BUDGET_MS));
+        return Math.min(budget, timeLeftMs / 4);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.checkers.engine;
+
+import java.util.Arrays;
+
+/**
+ * Таблица транспозиций фиксированного размера на примитивных массивах, общая для всех потоков поиска.
+ * Каждая запись занимает два слота long: проверочное слово и упакованные оценка, глубина, тип границы,
+ * лучший ход и поколение поиска.
+ * Блокировок нет: проверочное слово равно ключу, сложенному по XOR со вторым словом,
+ * поэтому запись, разорванная одновременной записью другого потока, просто не проходит проверку.
+ */
+final class TranspositionTable {
+
+    // --- Типы границ оценки ---
+    static final int BOUND_NONE = 0;
+    static final int BOUND_EXACT = 1;
+    static final int BOUND_LOWER = 2;
+    static final int BOUND_UPPER = 3;
+
+    static final int NO_MOVE = 0;
+
+    private static final int SLOTS_PER_ENTRY = 2;
+    private static final int BYTES_PER_ENTRY = SLOTS_PER_ENTRY * 8;
+
+    // --- Раскладка битов поля info ---
+    private static final int SCORE_SHIFT = 0;       // 32 бита
+    private static final int DEPTH_SHIFT = 32;      // 8 бит
+    private static final int BOUND_SHIFT = 40;      // 2 бита
+    private static final int MOVE_SHIFT = 42;       // 12 бит
+    private static final int GENERATION_SHIFT = 54; // 8 бит
+
+    /**
+     * Результат успешного чтения записи. Каждый поток держит свой экземпляр.
+     */
+    static final class Entry {
+        int score;
+        int depth;
+        int bound;
+        int move;
+    }
+
+    private final long[] table;
+    private final int mask;
+    private volatile int generation;
+
+    /**
+     * Создаёт таблицу, занимающую не больше указанного числа мегабайт (число записей — степень двойки).
+     */
+    TranspositionTable(int megabytes) {
+        long budget = Math.max(1, megabytes) * 1024L * 1024L / BYTES_PER_ENTRY;
+        int entries = Integer.highestOneBit((int) Math.min(budget, 1 << 26));
+        table = new long[entries * SLOTS_PER_ENTRY];
+        mask = entries - 1;
+    }
+
+    /**
+     * Начинает новый поиск: записи прошлых поколений можно перезаписывать независимо от глубины.
+     */
+    void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Стирает все записи.
+     */
+    void clear() {
+        Arrays.fill(table, 0);
+    }
+
+    /**
+     * Читает запись с данным ключом в entry. Возвращает false, если позиции нет или запись повреждена гонкой.
+     */
+    boolean probe(long key, Entry entry) {
+        int index = index(key);
+        long check = table[index];
+        long info = table[index + 1];
+        if (info == 0 || (check ^ info) != key) {
+            return false;
+        }
+        entry.score = (int) (info >>> SCORE_SHIFT);
+        entry.depth = (int) (info >>> DEPTH_SHIFT) & 0xFF;
+        entry.bound = (int) (info >>> BOUND_SHIFT) & 0x3;
+        entry.move = (int) (info >>> MOVE_SHIFT) & 0xFFF;
+        return true;
+    }
+
+    /**
+     * Сохраняет результат поиска. Более глубокая запись текущего поколения не вытесняется.
+     */
+    void store(long key, int depth, int bound, int score, int move) {
+        int index = index(key);
+        int currentGeneration = generation;
+        long stored = table[index + 1];
+        if (stored != 0 && (int) (stored >>> GENERATION_SHIFT) == currentGeneration
+                && ((int) (stored >>> DEPTH_SHIFT) & 0xFF) > depth) {
+            return;
+        }
+        long info = ((score & 0xFFFFFFFFL) << SCORE_SHIFT)
+                | ((long) depth << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) (move & 0xFFF) << MOVE_SHIFT)
+                | ((long) currentGeneration << GENERATION_SHIFT);
+        table[index] = key ^ info;
+        table[index + 1] = info;
+    }
+
+    private int index(long key) {
+        return ((int) key & mask) * SLOTS_PER_ENTRY;
+    }
+
+    /**
+     * Кодирует ход как пару клеток (откуда, куда) для хранения в таблице; 0 означает отсутствие хода.
+     */
+    static int encodeMove(Move move) {
+        int from = BitBoard.square(move.fromRow, move.fromCol);
+        int to = BitBoard.square(move.toRow, move.toCol);
+        return 0x400 | (from << 5) | to;
+    }
+}
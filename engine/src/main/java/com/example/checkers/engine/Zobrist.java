@@ -0,0 +1,53 @@
+package com.example.checkers.engine;
+
+import java.util.Random;
+
+/**
+ * Случайные ключи Зобриста для хеширования позиций.
+ * Генератор инициализируется фиксированным зерном, поэтому ключи одинаковы при каждом запуске.
+ */
+final class Zobrist {
+
+    /** Ключи по типу фигуры (BLACK_PIECE..WHITE_KING) и номеру тёмной клетки. */
+    static final long[][] PIECES = new long[5][32];
+
+    /** Ключ очереди хода белых. */
+    static final long WHITE_TO_MOVE;
+
+    static {
+        Random random = new Random(0x5EED_C4EC_4E25L);
+        for (int piece = Rules.BLACK_PIECE; piece <= Rules.WHITE_KING; piece++) {
+            for (int square = 0; square < 32; square++) {
+                PIECES[piece][square] = random.nextLong();
+            }
+        }
+        WHITE_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Вычисляет ключ позиции с нуля (для корня поиска и проверок).
+     */
+    static long hash(int black, int white, int kings, int player) {
+        long key = (player == Rules.WHITE_PLAYER) ? WHITE_TO_MOVE : 0;
+        for (int bits = black | white; bits != 0; bits &= bits - 1) {
+            int square = Integer.numberOfTrailingZeros(bits);
+            key ^= PIECES[pieceAt(black, kings, square)][square];
+        }
+        return key;
+    }
+
+    /**
+     * Возвращает тип фигуры на занятой клетке.
+     */
+    static int pieceAt(int black, int kings, int square) {
+        int bit = 1 << square;
+        boolean isKing = (kings & bit) != 0;
+        if ((black & bit) != 0) {
+            return isKing ? Rules.BLACK_KING : Rules.BLACK_PIECE;
+        }
+        return isKing ? Rules.WHITE_KING : Rules.WHITE_PIECE;
+    }
+}
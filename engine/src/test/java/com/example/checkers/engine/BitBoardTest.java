@@ -0,0 +1,70 @@
+package com.example.checkers.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Ход и его отмена на {@link BitBoard}: ключ Зобриста и инкрементальные члены оценки после хода совпадают
+ * с посчитанными заново, а отмена возвращает позицию целиком.
+ */
+public class BitBoardTest {
+
+    private static final int GAMES = 200;
+    private static final int MAX_PLIES = 120;
+
+    @Test
+    public void makeAndUnmakeKeepKeyAndTermsConsistent() {
+        Random random = new Random(1);
+        MoveList[] lists = new MoveList[MAX_PLIES];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+        for (int game = 0; game < GAMES; game++) {
+            BitBoard position = BitBoard.fromText(BitBoard.START_TEXT);
+            int player = Rules.WHITE_PLAYER;
+            for (int ply = 0; ply < MAX_PLIES; ply++) {
+                MoveList moves = lists[ply];
+                position.generateMoves(player, moves);
+                if (moves.size == 0) break;
+                int opponent = (player == Rules.BLACK_PLAYER) ? Rules.WHITE_PLAYER : Rules.BLACK_PLAYER;
+                String before = position.toText(player);
+                long keyBefore = position.key;
+                for (int i = 0; i < moves.size; i++) {
+                    position.makeMove(moves.moves[i], moves.captured[i]);
+                    assertSameAsFresh(position, opponent);
+                    position.unmakeMove(moves.moves[i]);
+                    assertEquals(before, position.toText(player));
+                    assertEquals(keyBefore, position.key);
+                    assertSameAsFresh(position, player);
+                }
+                int choice = random.nextInt(moves.size);
+                position.makeMove(moves.moves[choice], moves.captured[choice]);
+                player = opponent;
+            }
+        }
+    }
+
+    @Test
+    public void textNotationRoundTrips() {
+        String text = "b:bbbb.b.w....B.....W..ww....wwwww";
+        BitBoard position = BitBoard.fromText(text);
+        assertEquals(Rules.BLACK_PLAYER, BitBoard.playerFromText(text));
+        assertEquals(text, position.toText(Rules.BLACK_PLAYER));
+        assertEquals(Rules.WHITE_PLAYER, BitBoard.playerFromText(BitBoard.START_TEXT));
+    }
+
+    private static void assertSameAsFresh(BitBoard position, int player) {
+        BitBoard fresh = new BitBoard(position.black, position.white, position.kings, player);
+        String text = position.toText(player);
+        assertEquals(text, fresh.key, position.key);
+        for (int side = Rules.BLACK_PLAYER; side <= Rules.WHITE_PLAYER; side++) {
+            assertEquals(text, fresh.menCount(side), position.menCount(side));
+            assertEquals(text, fresh.kingCount(side), position.kingCount(side));
+            assertEquals(text, fresh.centerCount(side), position.centerCount(side));
+            assertEquals(text, fresh.advancement(side), position.advancement(side));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.checkers.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Эндшпильная база до 3 фигур, построенная {@link BitbaseGenerator}, согласована на один ход:
+ * результат каждой позиции следует из результатов позиций после её ходов, прочитанных из той же базы.
+ */
+public class BitbaseTest {
+
+    private static final int PIECES = 3;
+
+    @ClassRule
+    public static final TemporaryFolder folder = new TemporaryFolder();
+
+    private static Bitbase bitbase;
+
+    @BeforeClass
+    public static void generate() throws Exception {
+        File file = folder.newFile(Bitbase.FILE_NAME);
+        try (BitbaseGenerator generator = new BitbaseGenerator(PIECES, 2)) {
+            generator.generate();
+            generator.write(file);
+        }
+        bitbase = Bitbase.open(file);
+        assertNotNull(bitbase);
+        assertEquals(PIECES, bitbase.maxPieces());
+    }
+
+    @Test
+    public void everyPositionAgreesWithItsReplies() {
+        BitBoard board = new BitBoard(0, 0, 0, Rules.WHITE_PLAYER);
+        MoveList moves = new MoveList();
+        int checked = 0;
+        for (int pieces = 2; pieces <= PIECES; pieces++) {
+            for (int blackMen = 0; blackMen <= pieces; blackMen++) {
+                for (int blackKings = 0; blackMen + blackKings <= pieces; blackKings++) {
+                    for (int whiteMen = 0; blackMen + blackKings + whiteMen <= pieces; whiteMen++) {
+                        int whiteKings = pieces - blackMen - blackKings - whiteMen;
+                        if (blackMen + blackKings == 0 || whiteMen + whiteKings == 0) continue;
+                        int signature = Bitbase.signature(blackMen, blackKings, whiteMen, whiteKings);
+                        for (long entry = 0; entry < Bitbase.entries(signature); entry++) {
+                            int[] position = Bitbase.position(signature, entry);
+                            if (position == null) continue;
+                            checkPosition(board, moves, position[0], position[1], position[2], position[3]);
+                            checked++;
+                        }
+                    }
+                }
+            }
+        }
+        assertNotEquals(0, checked);
+    }
+
+    /**
+     * Выигрыш — есть ход в проигрыш соперника (или ход, снимающий его последнюю фигуру); проигрыш — все ходы
+     * ведут в выигрыш соперника (в том числе нет ходов); иначе ничья.
+     */
+    private static void checkPosition(BitBoard board, MoveList moves, int black, int white, int kings, int player) {
+        int opponent = (player == Rules.BLACK_PLAYER) ? Rules.WHITE_PLAYER : Rules.BLACK_PLAYER;
+        board.set(black, white, kings, player);
+        board.generateMoves(player, moves);
+        boolean win = false;
+        boolean allWin = true;
+        for (int i = 0; i < moves.size; i++) {
+            board.makeMove(moves.moves[i], moves.captured[i]);
+            int reply = (board.pieces(opponent) == 0) ? Bitbase.LOSS
+                    : bitbase.probe(board.black, board.white, board.kings, opponent);
+            board.unmakeMove(moves.moves[i]);
+            assertNotEquals(Bitbase.UNKNOWN, reply);
+            win |= (reply == Bitbase.LOSS);
+            allWin &= (reply == Bitbase.WIN);
+        }
+        int expected = win ? Bitbase.WIN : (allWin ? Bitbase.LOSS : Bitbase.DRAW);
+        assertEquals(board.toText(player), expected, bitbase.probe(black, white, kings, player));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.checkers.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Поиск через {@link Engine}: находит единственный выигрывающий ход и жертву, ведущую к обязательному
+ * взятию с выигрышем материала; {@link Engine#stop} и {@link Engine#ponderHit} завершают размышление.
+ */
+public class EngineTest {
+
+    private static final int DEPTH = 8;
+    private static final long BUDGET_MS = 60_000;
+    /** Сколько размышление идёт до stop или ponderHit. */
+    private static final long PONDER_MS = 200;
+    /** Сколько ждать, пока размышление закончится после stop или ponderHit. */
+    private static final long STOP_TIMEOUT_MS = 5_000;
+
+    private Engine engine;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        engine = new Engine(16, 2, Engine.MODE_ROOT_SPLIT, new Random(1), null);
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        engine.close();
+    }
+
+    @Test
+    public void findsWinningMove() {
+        // Единственные ходы, после которых соперник через несколько полуходов остаётся без ходов.
+        assertBestMove("w:..........bbW....ww.w......ww...", "a5", "d8");
+        assertBestMove("b:...b......wB....................", "h6", "f8");
+    }
+
+    @Test
+    public void findsSacrificeIntoForcedCapture() {
+        // g7-f6 отдаёт шашку: белые обязаны бить e7:g5, и чёрные берут две шашки h6:f4:d2.
+        assertBestMove("b:....b.wb...bb.........w...www...", "g7", "f6");
+    }
+
+    @Test
+    public void stopEndsPondering() throws Exception {
+        Future<Move> result = startPondering();
+        Thread.sleep(PONDER_MS);
+        assertFalse(result.isDone());
+        engine.stop();
+        assertNotNull(result.get(STOP_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void ponderHitEndsPonderingWhenBudgetIsSpent() throws Exception {
+        Future<Move> result = startPondering();
+        Thread.sleep(PONDER_MS);
+        assertFalse(result.isDone());
+        // Бюджет отсчитывается от начала размышления и уже истрачен.
+        engine.ponderHit(PONDER_MS / 2);
+        assertNotNull(result.get(STOP_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Запускает размышление без ограничения глубины над начальной позицией в отдельном потоке.
+     */
+    private Future<Move> startPondering() {
+        int[][] board = BitBoard.fromText(BitBoard.START_TEXT).toBoard();
+        List<Move> moves = Rules.legalMoves(board, Rules.WHITE_PLAYER);
+        engine.startPondering();
+        return executor.submit(() -> engine.ponder(board, Rules.WHITE_PLAYER, moves, Engine.MAX_DEPTH));
+    }
+
+    private void assertBestMove(String text, String from, String to) {
+        int[][] board = BitBoard.fromText(text).toBoard();
+        int player = BitBoard.playerFromText(text);
+        Move move = engine.search(board, player, Rules.legalMoves(board, player), DEPTH, BUDGET_MS);
+        assertNotNull(text, move);
+        assertEquals(text, from + "-" + to, square(move.fromRow, move.fromCol) + "-" + square(move.toRow, move.toCol));
+    }
+
+    private static String square(int row, int col) {
+        return (char) ('a' + col) + Integer.toString(8 - row);
+    }
+}
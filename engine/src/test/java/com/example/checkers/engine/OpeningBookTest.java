@@ -0,0 +1,70 @@
+package com.example.checkers.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Книга, записанная {@link OpeningBookBuilder} и прочитанная {@link OpeningBook}, возвращает именно тот ход,
+ * что в неё положили, даже если у позиции есть другая цепочка взятий с теми же началом и концом.
+ */
+public class OpeningBookTest {
+
+    /** Позиция, где у чёрных два взятия из одной клетки в одну, но через разные клетки. */
+    private static final String AMBIGUOUS = "b:b.....b.bbbb...b.www...w..www...";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void chainsWithSameEndpointsStayApart() throws Exception {
+        BitBoard position = BitBoard.fromText(AMBIGUOUS);
+        List<Move> moves = new ArrayList<>();
+        position.generateMoves(Rules.BLACK_PLAYER, moves);
+        assertEquals(2, moves.size());
+        Move first = moves.get(0);
+        Move second = moves.get(1);
+        assertEquals(TranspositionTable.encodeMove(first), TranspositionTable.encodeMove(second));
+        assertFalse(first.sameSquares(second));
+
+        OpeningBook book = build(position.key, second);
+        Random random = new Random(1);
+        for (int i = 0; i < 20; i++) {
+            Move chosen = book.choose(position, moves, random);
+            assertNotNull(chosen);
+            assertTrue(chosen.sameSquares(second));
+        }
+        List<Move> withoutBookMove = new ArrayList<>();
+        withoutBookMove.add(first);
+        assertNull(book.choose(position, withoutBookMove, random));
+    }
+
+    @Test
+    public void unknownPositionHasNoMove() throws Exception {
+        BitBoard start = BitBoard.fromText(BitBoard.START_TEXT);
+        List<Move> moves = new ArrayList<>();
+        start.generateMoves(Rules.WHITE_PLAYER, moves);
+        OpeningBook book = build(start.key ^ 1, moves.get(0));
+        assertEquals(1, book.size());
+        assertNull(book.choose(start, moves, new Random(1)));
+    }
+
+    private OpeningBook build(long key, Move move) throws Exception {
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        builder.add(key, move, 1);
+        File file = folder.newFile(OpeningBook.FILE_NAME);
+        builder.write(file);
+        return OpeningBook.open(file);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.checkers.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.Test;
+
+/**
+ * Генератор ходов против эталонного файла perft.txt (режим Perft check): любое расхождение числа листьев
+ * валит сборку. Тесты движка запускаются из каталога модуля, где лежит файл.
+ */
+public class PerftTest {
+
+    private static final File REFERENCE = new File("perft.txt");
+    private static final int HASH_MB = 64;
+
+    @Test
+    public void matchesReferenceCounts() throws Exception {
+        assertTrue("Missing " + REFERENCE.getAbsolutePath(), REFERENCE.isFile());
+        try (Perft perft = new Perft(Runtime.getRuntime().availableProcessors(), HASH_MB, true)) {
+            assertTrue("Perft counts differ from " + REFERENCE, perft.check(REFERENCE));
+        }
+    }
+
+    @Test
+    public void countsWithoutBulkOrHashAgree() throws Exception {
+        try (Perft fast = new Perft(1, HASH_MB, true); Perft plain = new Perft(1, 0, false)) {
+            BitBoard position = BitBoard.fromText(BitBoard.START_TEXT);
+            for (int depth = 1; depth <= 6; depth++) {
+                assertEquals(sum(fast.divide(position, Rules.WHITE_PLAYER, depth)),
+                        sum(plain.divide(position, Rules.WHITE_PLAYER, depth)));
+            }
+        }
+    }
+
+    private static long sum(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.checkers.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Поиск {@link Searcher} при выключенном выборочном поиске и фиксированной глубине: PVS с окнами стремления
+ * и таблицей транспозиций даёт ту же оценку и тот же набор лучших ходов, что и простой перебор alpha-beta,
+ * а разделение ходов корня на несколько потоков — то же, что и один поток.
+ */
+public class SearcherTest {
+
+    private static final int DEPTH = 9;
+    private static final int THREADS = 4;
+    /** Глубина сверки с простым перебором: без упорядочивания и таблицы он заметно медленнее. */
+    private static final int REFERENCE_DEPTH = 7;
+    private static final long NO_TIME_LIMIT_MS = Long.MAX_VALUE / 1_000_000L;
+
+    /** Позиции из одной случайной партии (начальная, дебют и середина игры), в которых есть выбор хода. */
+    static List<String> positions() {
+        Random random = new Random(7);
+        BitBoard position = BitBoard.fromText(BitBoard.START_TEXT);
+        int player = Rules.WHITE_PLAYER;
+        List<String> positions = new ArrayList<>();
+        for (int ply = 0; ply <= 24; ply++) {
+            List<Move> moves = new ArrayList<>();
+            position.generateMoves(player, moves);
+            if (moves.isEmpty()) break;
+            if (ply % 4 == 0 && moves.size() > 1) {
+                positions.add(position.toText(player));
+            }
+            position.makeMove(moves.get(random.nextInt(moves.size())));
+            player = (player == Rules.BLACK_PLAYER) ? Rules.WHITE_PLAYER : Rules.BLACK_PLAYER;
+        }
+        return positions;
+    }
+
+    @Test
+    public void rootSplitMatchesSingleThread() {
+        Searcher single = newSearcher(1);
+        Searcher split = newSearcher(THREADS);
+        try {
+            for (String text : positions()) {
+                // Один список ходов корня на оба поиска: лучшие ходы сравниваются как объекты.
+                List<Move> moves = rootMoves(text);
+                search(single, text, moves);
+                search(split, text, moves);
+                assertEquals(text, DEPTH, single.getCompletedDepth());
+                assertEquals(text, DEPTH, split.getCompletedDepth());
+                assertEquals(text, single.getCompletedScore(), split.getCompletedScore());
+                assertFalse(text, single.getCompletedBestMoves().isEmpty());
+                assertEquals(text, new HashSet<>(single.getCompletedBestMoves()),
+                        new HashSet<>(split.getCompletedBestMoves()));
+            }
+        } finally {
+            single.close();
+            split.close();
+        }
+    }
+
+    @Test
+    public void searchMatchesPlainAlphaBeta() {
+        Searcher searcher = newSearcher(1);
+        PlainAlphaBeta reference = new PlainAlphaBeta();
+        try {
+            for (String text : positions()) {
+                List<Move> moves = rootMoves(text);
+                searcher.search(BitBoard.fromText(text), BitBoard.playerFromText(text), moves, REFERENCE_DEPTH,
+                        NO_TIME_LIMIT_MS);
+                int[] scores = reference.rootScores(text, moves, REFERENCE_DEPTH);
+                int best = Integer.MIN_VALUE;
+                for (int score : scores) {
+                    best = Math.max(best, score);
+                }
+                List<Move> expected = new ArrayList<>();
+                for (int i = 0; i < moves.size(); i++) {
+                    if (scores[i] == best) {
+                        expected.add(moves.get(i));
+                    }
+                }
+                assertEquals(text, best, searcher.getCompletedScore());
+                assertEquals(text, new HashSet<>(expected), new HashSet<>(searcher.getCompletedBestMoves()));
+            }
+        } finally {
+            searcher.close();
+        }
+    }
+
+    static Searcher newSearcher(int threads) {
+        Searcher searcher = new Searcher(16, threads, Searcher.MODE_ROOT_SPLIT, new Random(1), null);
+        searcher.setPruning(PruningSettings.disabled());
+        return searcher;
+    }
+
+    static List<Move> rootMoves(String text) {
+        List<Move> moves = new ArrayList<>();
+        BitBoard.fromText(text).generateMoves(BitBoard.playerFromText(text), moves);
+        return moves;
+    }
+
+    /**
+     * Ищет до DEPTH без ограничения времени.
+     */
+    private static void search(Searcher searcher, String text, List<Move> moves) {
+        searcher.search(BitBoard.fromText(text), BitBoard.playerFromText(text), moves, DEPTH, NO_TIME_LIMIT_MS);
+    }
+
+    /**
+     * Простой перебор alpha-beta без таблицы, упорядочивания, PVS и окон стремления с теми же правилами
+     * листьев, что у {@link SearchWorker}: на горизонте — перебор взятий, без ходов — проигрыш на данном ply.
+     * Каждый ход корня ищется в полном окне и получает точную оценку.
+     */
+    static final class PlainAlphaBeta {
+
+        private final SearchWorker evaluator = new SearchWorker(null, new TranspositionTable(1));
+        private final MoveList[] lists = new MoveList[BitBoard.MAX_PLY + 1];
+
+        PlainAlphaBeta() {
+            evaluator.newSearch(true, 0, PruningSettings.disabled(), new EvalWeights());
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = new MoveList();
+            }
+        }
+
+        int[] rootScores(String text, List<Move> moves, int depth) {
+            BitBoard position = BitBoard.fromText(text);
+            int player = BitBoard.playerFromText(text);
+            int[] scores = new int[moves.size()];
+            for (int i = 0; i < moves.size(); i++) {
+                position.makeMove(moves.get(i));
+                scores[i] = -alphaBeta(position, depth - 1, 1, -SearchWorker.INFINITE, SearchWorker.INFINITE,
+                        Rules.opponent(player));
+                position.unmakeMove(moves.get(i));
+            }
+            return scores;
+        }
+
+        private int alphaBeta(BitBoard position, int depth, int ply, int alpha, int beta, int player) {
+            if (depth == 0) {
+                return quiesce(position, ply, alpha, beta, player);
+            }
+            MoveList moves = lists[ply];
+            position.generateMoves(player, moves);
+            if (moves.isEmpty()) {
+                return -(SearchWorker.WIN_SCORE - ply);
+            }
+            int best = -SearchWorker.INFINITE;
+            for (int i = 0; i < moves.size && alpha < beta; i++) {
+                position.makeMove(moves.moves[i], moves.captured[i]);
+                int score = -alphaBeta(position, depth - 1, ply + 1, -beta, -alpha, Rules.opponent(player));
+                position.unmakeMove(moves.moves[i]);
+                best = Math.max(best, score);
+                alpha = Math.max(alpha, score);
+            }
+            return best;
+        }
+
+        private int quiesce(BitBoard position, int ply, int alpha, int beta, int player) {
+            if (!position.hasJumps(player)) {
+                return (position.mobility(player) == 0) ? -(SearchWorker.WIN_SCORE - ply)
+                        : evaluator.evaluatePosition(position, player);
+            }
+            if (ply >= BitBoard.MAX_PLY - 1) {
+                return evaluator.evaluatePosition(position, player);
+            }
+            MoveList captures = lists[ply];
+            position.generateJumps(player, captures);
+            int best = -SearchWorker.INFINITE;
+            for (int i = 0; i < captures.size && alpha < beta; i++) {
+                position.makeMove(captures.moves[i], captures.captured[i]);
+                int score = -quiesce(position, ply + 1, -beta, -alpha, Rules.opponent(player));
+                position.unmakeMove(captures.moves[i]);
+                best = Math.max(best, score);
+                alpha = Math.max(alpha, score);
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.checkers.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Бюджеты времени на ход {@link TimeManager}.
+ */
+public class TimeManagerTest {
+
+    @Test
+    public void unlimitedGameGetsFixedBudget() {
+        assertEquals(TimeManager.UNLIMITED_BUDGET_MS, TimeManager.moveBudget(0, 0));
+        assertEquals(TimeManager.UNLIMITED_BUDGET_MS, TimeManager.moveBudget(-1, 60_000));
+    }
+
+    @Test
+    public void budgetSplitsRemainingTime() {
+        // 1 минута на партию, осталось 30 с: 30 000 / 30 ходов, но не больше 60 000 / 20.
+        assertEquals(1_000, TimeManager.moveBudget(30_000, 60_000));
+        // Больше лимита на часах (например, после добавки): ограничивает доля лимита.
+        assertEquals(3_000, TimeManager.moveBudget(120_000, 60_000));
+    }
+
+    @Test
+    public void budgetIsClamped() {
+        assertEquals(5_000, TimeManager.moveBudget(3_600_000, 3_600_000));
+        assertEquals(50, TimeManager.moveBudget(600, 60_000));
+    }
+
+    @Test
+    public void budgetNeverExceedsQuarterOfLowClock() {
+        // Меньше 200 мс на часах: нижняя граница 50 мс уступает четверти остатка.
+        assertEquals(25, TimeManager.moveBudget(100, 60_000));
+        assertEquals(0, TimeManager.moveBudget(0, 60_000));
+        for (long left = 0; left < 200; left++) {
+            assertTrue(TimeManager.moveBudget(left, 60_000) <= left / 4);
+        }
+    }
+
+    @Test
+    public void budgetNeverGrowsAsClockRunsDown() {
+        long previous = Long.MAX_VALUE;
+        for (long left = 300_000; left >= 0; left -= 1_000) {
+            long budget = TimeManager.moveBudget(left, 300_000);
+            assertTrue(budget <= previous);
+            previous = budget;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.checkers.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+
+import org.junit.Test;
+
+/**
+ * Запись и чтение {@link TranspositionTable}: поля упаковываются без потерь, чужой ключ в той же ячейке
+ * и запись, разорванная гонкой потоков, не проходят проверку XOR, глубокая запись вытесняется только
+ * в новом поиске.
+ */
+public class TranspositionTableTest {
+
+    private static final long KEY = 0x0123456789ABCDEFL;
+
+    @Test
+    public void storedEntryIsReadBack() {
+        TranspositionTable table = new TranspositionTable(1);
+        TranspositionTable.Entry entry = new TranspositionTable.Entry();
+        int move = MoveList.encode(9, 13, false);
+        table.store(KEY, 7, TranspositionTable.BOUND_LOWER, -1234, move);
+        assertTrue(table.probe(KEY, entry));
+        assertEquals(7, entry.depth);
+        assertEquals(TranspositionTable.BOUND_LOWER, entry.bound);
+        assertEquals(-1234, entry.score);
+        assertEquals(move & 0xFFF, entry.move);
+    }
+
+    @Test
+    public void otherKeyInSameSlotIsRejected() {
+        TranspositionTable table = new TranspositionTable(1);
+        TranspositionTable.Entry entry = new TranspositionTable.Entry();
+        table.store(KEY, 5, TranspositionTable.BOUND_EXACT, 10, TranspositionTable.NO_MOVE);
+        // Те же младшие биты — та же ячейка, но другой ключ.
+        assertFalse(table.probe(KEY ^ (1L << 50), entry));
+        assertFalse(new TranspositionTable(1).probe(KEY, entry));
+    }
+
+    @Test
+    public void tornEntryIsRejected() throws Exception {
+        TranspositionTable table = new TranspositionTable(1);
+        TranspositionTable.Entry entry = new TranspositionTable.Entry();
+        long other = KEY ^ (1L << 50);
+        table.store(KEY, 5, TranspositionTable.BOUND_EXACT, 10, TranspositionTable.NO_MOVE);
+        long[] slots = slots(table);
+        int index = findSlot(slots, KEY);
+        long check = slots[index];
+        table.store(other, 6, TranspositionTable.BOUND_UPPER, -20, TranspositionTable.NO_MOVE);
+        // Проверочное слово от первой записи, данные от второй — как при одновременной записи двух потоков.
+        slots[index] = check;
+        assertFalse(table.probe(KEY, entry));
+        assertFalse(table.probe(other, entry));
+    }
+
+    @Test
+    public void deeperEntryIsKeptUntilNewSearch() {
+        TranspositionTable table = new TranspositionTable(1);
+        TranspositionTable.Entry entry = new TranspositionTable.Entry();
+        table.newSearch();
+        table.store(KEY, 8, TranspositionTable.BOUND_EXACT, 50, TranspositionTable.NO_MOVE);
+        table.store(KEY, 3, TranspositionTable.BOUND_EXACT, 60, TranspositionTable.NO_MOVE);
+        assertTrue(table.probe(KEY, entry));
+        assertEquals(8, entry.depth);
+
+        table.newSearch();
+        table.store(KEY, 3, TranspositionTable.BOUND_EXACT, 60, TranspositionTable.NO_MOVE);
+        assertTrue(table.probe(KEY, entry));
+        assertEquals(3, entry.depth);
+        assertEquals(60, entry.score);
+    }
+
+    private static long[] slots(TranspositionTable table) throws ReflectiveOperationException {
+        Field field = TranspositionTable.class.getDeclaredField("table");
+        field.setAccessible(true);
+        return (long[]) field.get(table);
+    }
+
+    private static int findSlot(long[] slots, long key) {
+        for (int i = 0; i < slots.length; i += 2) {
+            if (slots[i + 1] != 0 && (slots[i] ^ slots[i + 1]) == key) {
+                return i;
+            }
+        }
+        throw new AssertionError("Entry not stored");
+    }
+}
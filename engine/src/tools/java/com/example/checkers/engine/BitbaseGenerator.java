@@ -0,0 +1,224 @@
+package com.example.checkers.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Строит эндшпильную базу {@link Bitbase} ретроградным анализом по правилам, по которым играет поиск
+ * (ходы берутся из {@link BitBoard}: обязательное взятие, дальнобойные дамки, взятие простыми назад,
+ * превращение посреди цепочки).
+ *
+ * Срезы считаются от меньшего числа фигур к большему, а при равном числе — от меньшего числа простых:
+ * взятие уводит в срез с меньшим числом фигур, превращение — в срез с меньшим числом простых, так что
+ * к началу среза все внешние ходы уже решены. Внутри среза проходы повторяются, пока появляются
+ * новые выигрыши и проигрыши; позиции, оставшиеся нерешёнными, — ничьи. Каждый проход делится
+ * на части по потокам.
+ *
+ * Запуск на компьютере разработчика: BitbaseGenerator файл [число фигур] [потоки].
+ * Базу до 4 фигур для приложения пересобирает вручную задача gradle :engine:generateBitbase и записывает
+ * в app/src/main/assets под именем {@link Bitbase#FILE_NAME}; файл хранится в репозитории, а приложение
+ * при первом запуске копирует его в каталог данных.
+ */
+final class BitbaseGenerator implements AutoCloseable {
+
+    private static final int DEFAULT_MAX_PIECES = 4;
+
+    // --- Состояния позиции во время расчёта среза (WIN и LOSS совпадают с Bitbase) ---
+    private static final byte PENDING = 0;
+    private static final byte INVALID = 4;
+
+    private static final int CHUNKS_PER_THREAD = 8;
+
+    private final int maxPieces;
+    private final int threads;
+    private final ExecutorService executor;
+    private final byte[][] solved = new byte[Bitbase.signatureCount()][];
+    private final List<Integer> order = new ArrayList<>();
+
+    BitbaseGenerator(int maxPieces, int threads) {
+        if (maxPieces < 2 || maxPieces > Bitbase.MAX_PIECES) {
+            throw new IllegalArgumentException("Piece count must be 2.." + Bitbase.MAX_PIECES);
+        }
+        this.maxPieces = maxPieces;
+        this.threads = Math.max(1, threads);
+        this.executor = Executors.newFixedThreadPool(this.threads);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: BitbaseGenerator <output file> [max pieces] [threads]");
+            System.exit(1);
+        }
+        int maxPieces = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_MAX_PIECES;
+        int threads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        try (BitbaseGenerator generator = new BitbaseGenerator(maxPieces, threads)) {
+            generator.generate();
+            generator.write(new File(args[0]));
+        }
+    }
+
+    /**
+     * Останавливает потоки генератора.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Решает все срезы до maxPieces фигур (у каждой стороны хотя бы одна фигура).
+     */
+    void generate() throws InterruptedException, ExecutionException {
+        for (int pieces = 2; pieces <= maxPieces; pieces++) {
+            for (int men = 0; men <= pieces; men++) {
+                for (int blackMen = 0; blackMen <= men; blackMen++) {
+                    for (int blackKings = 0; blackKings <= pieces - men; blackKings++) {
+                        int whiteMen = men - blackMen;
+                        int whiteKings = pieces - men - blackKings;
+                        if (blackMen + blackKings == 0 || whiteMen + whiteKings == 0) continue;
+                        int signature = Bitbase.signature(blackMen, blackKings, whiteMen, whiteKings);
+                        long start = System.nanoTime();
+                        solved[signature] = solve(signature);
+                        order.add(signature);
+                        System.out.println("slice " + blackMen + "+" + blackKings + "K vs " + whiteMen + "+" + whiteKings
+                                + "K: " + Bitbase.entries(signature) + " positions, "
+                                + (System.nanoTime() - start) / 1_000_000 + " ms");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Решает один срез и возвращает его упакованным по 2 бита на позицию.
+     */
+    private byte[] solve(int signature) throws InterruptedException, ExecutionException {
+        long entries = Bitbase.entries(signature);
+        if (entries > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Slice too large: " + entries);
+        }
+        byte[] values = new byte[(int) entries];
+        boolean changed = true;
+        while (changed) {
+            changed = runPass(signature, values);
+        }
+        byte[] packed = new byte[(values.length + 3) / 4];
+        for (int entry = 0; entry < values.length; entry++) {
+            int value;
+            if (values[entry] == INVALID) {
+                value = Bitbase.UNKNOWN;
+            } else if (values[entry] == PENDING) {
+                value = Bitbase.DRAW;
+            } else {
+                value = values[entry];
+            }
+            packed[entry >> 2] |= (byte) (value << ((entry & 3) * 2));
+        }
+        return packed;
+    }
+
+    /**
+     * Один проход по нерешённым позициям среза в несколько потоков. Возвращает true, если что-то решилось.
+     * Потоки пишут разные позиции; устаревшее чтение соседней лишь откладывает решение до следующего прохода.
+     */
+    private boolean runPass(int signature, byte[] values) throws InterruptedException, ExecutionException {
+        int chunks = threads * CHUNKS_PER_THREAD;
+        int chunkSize = (values.length + chunks - 1) / chunks;
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int start = 0; start < values.length; start += chunkSize) {
+            int from = start;
+            int to = Math.min(values.length, start + chunkSize);
+            tasks.add(() -> solveRange(signature, values, from, to));
+        }
+        boolean changed = false;
+        for (Future<Boolean> result : executor.invokeAll(tasks)) {
+            changed |= result.get();
+        }
+        return changed;
+    }
+
+    private boolean solveRange(int signature, byte[] values, int from, int to) {
+        BitBoard board = new BitBoard(0, 0, 0, Rules.WHITE_PLAYER);
+        MoveList moves = new MoveList();
+        boolean changed = false;
+        for (int entry = from; entry < to; entry++) {
+            if (values[entry] != PENDING) continue;
+            int[] position = Bitbase.position(signature, entry);
+            if (position == null) {
+                values[entry] = INVALID;
+                continue;
+            }
+            int player = position[3];
+            int opponent = (player == Rules.BLACK_PLAYER) ? Rules.WHITE_PLAYER : Rules.BLACK_PLAYER;
+            board.set(position[0], position[1], position[2], player);
+            board.generateMoves(player, moves);
+            boolean allWin = true;
+            byte result = PENDING;
+            for (int i = 0; i < moves.size; i++) {
+                board.makeMove(moves.moves[i], moves.captured[i]);
+                int reply = lookup(signature, values, board, opponent);
+                board.unmakeMove(moves.moves[i]);
+                if (reply == Bitbase.LOSS) {
+                    result = Bitbase.WIN;
+                    break;
+                }
+                allWin &= (reply == Bitbase.WIN);
+            }
+            if (result == PENDING && allWin) {
+                result = Bitbase.LOSS;
+            }
+            if (result != PENDING) {
+                values[entry] = result;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Результат позиции после хода для стороны player, чей теперь ход (PENDING, если ещё не решён).
+     */
+    private int lookup(int signature, byte[] values, BitBoard board, int player) {
+        if (board.pieces(player) == 0) {
+            return Bitbase.LOSS;
+        }
+        int childSignature = Bitbase.signature(board.black, board.white, board.kings);
+        long entry = Bitbase.index(board.black, board.white, board.kings, player);
+        if (childSignature == signature) {
+            return values[(int) entry];
+        }
+        byte[] packed = solved[childSignature];
+        return (packed[(int) (entry >> 2)] >> (((int) entry & 3) * 2)) & 3;
+    }
+
+    /**
+     * Записывает базу: заголовок, каталог срезов и данные в том порядке, в каком срезы решались.
+     */
+    void write(File file) throws IOException {
+        long offset = 16 + 12L * order.size();
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            output.writeInt(Bitbase.MAGIC);
+            output.writeInt(Bitbase.VERSION);
+            output.writeInt(maxPieces);
+            output.writeInt(order.size());
+            for (int signature : order) {
+                output.writeInt(signature);
+                output.writeLong(offset);
+                offset += solved[signature].length;
+            }
+            for (int signature : order) {
+                output.write(solved[signature]);
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.checkers.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Строит дебютную книгу {@link OpeningBook} на компьютере разработчика.
+ *
+ * Источники ходов:
+ * <ul>
+ *   <li>games — файл партий, по одной в строке, в обычной нотации (c3-d4, взятие c3:e5:g3);
+ *   номера ходов и результат партии пропускаются. Вес хода — число партий, в которых он сыгран.</li>
+ *   <li>analyse — самоанализ: для каждой стороны поиск выбирает ход книги, а за соперника перебираются
+ *   все ответы, до заданного числа полуходов. Вес каждого найденного хода — 1.</li>
+ * </ul>
+ *
+ * Запуск: OpeningBookBuilder файл games партии.txt [полуходы]
+ * или OpeningBookBuilder файл analyse [полуходы] [глубина].
+ * Книгу для приложения пересобирает вручную задача gradle :engine:generateOpeningBook (самоанализ
+ * с параметрами по умолчанию) и записывает в app/src/main/assets под именем {@link OpeningBook#FILE_NAME};
+ * файл хранится в репозитории, а приложение при первом запуске копирует его в каталог данных.
+ */
+final class OpeningBookBuilder {
+
+    private static final int DEFAULT_GAME_PLIES = 16;
+    private static final int DEFAULT_ANALYSIS_PLIES = 6;
+    private static final int DEFAULT_ANALYSIS_DEPTH = 10;
+    /** Поиск самоанализа ограничен только глубиной: время не должно влиять на выбранные ходы. */
+    private static final long NO_TIME_LIMIT_MS = Long.MAX_VALUE / 1_000_000L;
+
+    /** Веса ходов по позиции: ключ Зобриста -> (ход -> вес). */
+    private final Map<Long, Map<BookMove, Integer>> entries = new HashMap<>();
+
+    /**
+     * Ход книги: код хода и клетки приземления, чтобы цепочки взятий с общими началом и концом не сливались.
+     */
+    private static final class BookMove {
+        final int code;
+        final long path;
+
+        BookMove(Move move) {
+            this.code = TranspositionTable.encodeMove(move);
+            this.path = MoveList.encodePath(move);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof BookMove && ((BookMove) other).code == code && ((BookMove) other).path == path;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * code + Long.hashCode(path);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: OpeningBookBuilder <output> games <games.txt> [plies]");
+            System.err.println("       OpeningBookBuilder <output> analyse [plies] [depth]");
+            System.exit(1);
+        }
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        if (args[1].equals("games")) {
+            int plies = (args.length > 3) ? Integer.parseInt(args[3]) : DEFAULT_GAME_PLIES;
+            builder.addGames(new File(args[2]), plies);
+        } else if (args[1].equals("analyse")) {
+            int plies = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_ANALYSIS_PLIES;
+            int depth = (args.length > 3) ? Integer.parseInt(args[3]) : DEFAULT_ANALYSIS_DEPTH;
+            builder.analyse(plies, depth);
+        } else {
+            throw new IllegalArgumentException("Unknown source " + args[1]);
+        }
+        builder.write(new File(args[0]));
+    }
+
+    /**
+     * Добавляет первые plies полуходов каждой партии файла. Партия с нераспознанным ходом обрывается на нём.
+     */
+    void addGames(File file, int plies) throws IOException {
+        int games = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                addGame(line.split("\\s+"), plies);
+                games++;
+            }
+        }
+        System.out.println("games: " + games + ", positions: " + entries.size());
+    }
+
+    private void addGame(String[] tokens, int plies) {
+        BitBoard position = new BitBoard(BitBoard.START_BLACK, BitBoard.START_WHITE, 0, Rules.WHITE_PLAYER);
+        int player = Rules.WHITE_PLAYER;
+        int ply = 0;
+        for (String token : tokens) {
+            if (ply >= plies) break;
+            if (!token.contains("-") && !token.contains(":")) continue; // номер хода
+            if (token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2")) break;
+            List<Move> moves = new ArrayList<>();
+            position.generateMoves(player, moves);
+            Move move = parseMove(token, moves);
+            if (move == null) {
+                System.err.println("Unrecognized move " + token + " at ply " + ply);
+                return;
+            }
+            add(position.key, move, 1);
+            position = play(position, move, player);
+            player = opponent(player);
+            ply++;
+        }
+    }
+
+    /**
+     * Находит ход по записи из клеток через «-» или «:». Для цепочки взятий достаточно начала и конца,
+     * если они определяют её однозначно; иначе нужно перечислить все клетки приземления.
+     */
+    static Move parseMove(String token, List<Move> moves) {
+        String[] names = token.split("[-:x]");
+        int[][] squares = new int[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i];
+            if (name.length() != 2 || name.charAt(0) < 'a' || name.charAt(0) > 'h'
+                    || name.charAt(1) < '1' || name.charAt(1) > '8') {
+                return null;
+            }
+            squares[i] = new int[]{'8' - name.charAt(1), name.charAt(0) - 'a'};
+        }
+        Move found = null;
+        for (Move move : moves) {
+            int[] last = squares[squares.length - 1];
+            if (move.fromRow != squares[0][0] || move.fromCol != squares[0][1]
+                    || move.toRow != last[0] || move.toCol != last[1]) continue;
+            if (squares.length > 2 && !sameLandings(move, squares)) continue;
+            if (found != null) {
+                return null; // неоднозначная запись
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    private static boolean sameLandings(Move move, int[][] squares) {
+        if (move.path == null || move.path.size() != squares.length - 1) {
+            return false;
+        }
+        for (int i = 0; i < move.path.size(); i++) {
+            if (move.path.get(i)[0] != squares[i + 1][0] || move.path.get(i)[1] != squares[i + 1][1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Самоанализ от начальной позиции: по очереди для белых и для чёрных.
+     * Поиск однопоточный, без выборочных сокращений и до фиксированной глубины, а равные ходы выбираются
+     * генератором с постоянным зерном, поэтому каждая сборка записывает один и тот же файл.
+     */
+    void analyse(int plies, int depth) {
+        Searcher searcher = new Searcher(64, 1, Searcher.MODE_ROOT_SPLIT, new Random(1), null);
+        searcher.setPruning(PruningSettings.disabled());
+        try {
+            for (int bookSide : new int[]{Rules.WHITE_PLAYER, Rules.BLACK_PLAYER}) {
+                BitBoard start = new BitBoard(BitBoard.START_BLACK, BitBoard.START_WHITE, 0, Rules.WHITE_PLAYER);
+                analyse(searcher, start, Rules.WHITE_PLAYER, bookSide, plies, depth, new HashMap<>(), new HashMap<>());
+                System.out.println("side " + bookSide + " done, positions: " + entries.size());
+            }
+        } finally {
+            searcher.close();
+        }
+    }
+
+    /**
+     * Разбирает позицию, если в неё ещё не приходили с таким же или большим запасом полуходов.
+     * Позиция, достигнутая раньше ближе к горизонту, раскрывается заново: иначе её продолжения не попали бы
+     * в книгу. Ход книжной стороны ищется один раз на позицию и при повторном раскрытии берётся из chosen.
+     *
+     * @param expanded наибольший запас полуходов, с которым позиция уже разобрана, по ключу Зобриста
+     * @param chosen   ход книжной стороны, найденный для позиции, по ключу Зобриста
+     */
+    private void analyse(Searcher searcher, BitBoard position, int player, int bookSide, int pliesLeft, int depth,
+                         Map<Long, Integer> expanded, Map<Long, Move> chosen) {
+        Integer expandedPlies = expanded.get(position.key);
+        if (pliesLeft == 0 || (expandedPlies != null && expandedPlies >= pliesLeft)) {
+            return;
+        }
+        expanded.put(position.key, pliesLeft);
+        List<Move> moves = new ArrayList<>();
+        position.generateMoves(player, moves);
+        if (moves.isEmpty()) {
+            return;
+        }
+        if (player == bookSide) {
+            Move best = chosen.get(position.key);
+            if (best == null) {
+                best = searcher.search(position, player, moves, depth, NO_TIME_LIMIT_MS);
+                if (best == null) {
+                    best = moves.get(0);
+                }
+                chosen.put(position.key, best);
+                add(position.key, best, 1);
+            }
+            analyse(searcher, play(position, best, player), opponent(player), bookSide, pliesLeft - 1, depth,
+                    expanded, chosen);
+        } else {
+            for (Move move : moves) {
+                analyse(searcher, play(position, move, player), opponent(player), bookSide, pliesLeft - 1, depth,
+                        expanded, chosen);
+            }
+        }
+    }
+
+    /**
+     * Добавляет вес ходу move в позиции с ключом key.
+     */
+    void add(long key, Move move, int weight) {
+        entries.computeIfAbsent(key, k -> new HashMap<>()).merge(new BookMove(move), weight, Integer::sum);
+    }
+
+    /**
+     * Записывает книгу: записи отсортированы по ключу, ходы одной позиции — по убыванию веса.
+     */
+    void write(File file) throws IOException {
+        List<long[]> records = new ArrayList<>();
+        for (Map.Entry<Long, Map<BookMove, Integer>> position : entries.entrySet()) {
+            for (Map.Entry<BookMove, Integer> move : position.getValue().entrySet()) {
+                records.add(new long[]{position.getKey(), move.getKey().path, move.getKey().code, move.getValue()});
+            }
+        }
+        records.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(b[3], a[3]));
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            output.writeInt(OpeningBook.MAGIC);
+            output.writeInt(OpeningBook.VERSION);
+            output.writeInt(records.size());
+            for (long[] record : records) {
+                output.writeLong(record[0]);
+                output.writeLong(record[1]);
+                output.writeInt((int) record[2]);
+                output.writeInt((int) record[3]);
+            }
+        }
+        System.out.println("records: " + records.size());
+    }
+
+    /**
+     * Позиция после хода (новый объект: стек отмены здесь не нужен).
+     */
+    private static BitBoard play(BitBoard position, Move move, int player) {
+        BitBoard next = new BitBoard(position.black, position.white, position.kings, player);
+        next.makeMove(move);
+        return next;
+    }
+
+    private static int opponent(int player) {
+        return (player == Rules.BLACK_PLAYER) ? Rules.WHITE_PLAYER : Rules.BLACK_PLAYER;
+    }
+}
@@ -0,0 +1,395 @@
+package com.example.checkers.engine;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Perft: число листьев дерева ходов {@link BitBoard} до заданной глубины. Служит проверкой генератора
+ * ходов (числа сравниваются с эталонным файлом) и мерой его скорости (узлы в секунду).
+ * Цепочка взятий — один ход, как и в поиске.
+ *
+ * Режимы запуска на компьютере разработчика:
+ * <ul>
+ *   <li>Perft позиция глубина [divide] — число листьев, с divide — отдельно по каждому ходу корня;</li>
+ *   <li>Perft check файл — сверка со всеми строками эталонного файла (позиция, глубина, число);</li>
+ *   <li>Perft verify позиция глубина — в каждом узле сравнивает ходы BitBoard с ходами живой доски
+ *   ({@link Rules#getAllPossibleMovesOnBoard}), собранными в цепочки прыжок за прыжком,
+ *   вместе с позициями после хода.</li>
+ * </ul>
+ * Параметры: -threads=N (ходы корня делятся между потоками), -hash=МБ (0 — без хеша),
+ * -nobulk (листья считаются ходом и отменой, а не размером списка ходов на последнем ply).
+ *
+ * Позиции записываются текстом, как в {@link BitBoard#fromText}; start — начальная позиция.
+ */
+final class Perft implements AutoCloseable {
+
+    private static final int DEFAULT_HASH_MB = 64;
+
+    private final int threads;
+    private final boolean bulk;
+    private final Hash hash;
+    private final ExecutorService executor;
+
+    Perft(int threads, int hashMb, boolean bulk) {
+        this.threads = Math.max(1, threads);
+        this.bulk = bulk;
+        this.hash = (hashMb > 0) ? new Hash(hashMb) : null;
+        this.executor = (this.threads > 1) ? Executors.newFixedThreadPool(this.threads) : null;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>();
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hashMb = DEFAULT_HASH_MB;
+        boolean bulk = true;
+        for (String arg : args) {
+            if (arg.startsWith("-threads=")) {
+                threads = Integer.parseInt(arg.substring("-threads=".length()));
+            } else if (arg.startsWith("-hash=")) {
+                hashMb = Integer.parseInt(arg.substring("-hash=".length()));
+            } else if (arg.equals("-nobulk")) {
+                bulk = false;
+            } else {
+                arguments.add(arg);
+            }
+        }
+        if (arguments.size() < 2) {
+            System.err.println("Usage: Perft <position|start> <depth> [divide] [-threads=N] [-hash=MB] [-nobulk]");
+            System.err.println("       Perft check <reference file> [-threads=N] [-hash=MB] [-nobulk]");
+            System.err.println("       Perft verify <position|start> <depth>");
+            System.exit(1);
+        }
+        boolean ok;
+        if (arguments.get(0).equals("verify")) {
+            ok = verify(arguments.get(1), Integer.parseInt(arguments.get(2)));
+        } else {
+            try (Perft perft = new Perft(threads, hashMb, bulk)) {
+                if (arguments.get(0).equals("check")) {
+                    ok = perft.check(new File(arguments.get(1)));
+                } else {
+                    boolean divide = arguments.size() > 2 && arguments.get(2).equals("divide");
+                    perft.run(arguments.get(0), Integer.parseInt(arguments.get(1)), divide);
+                    ok = true;
+                }
+            }
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    /**
+     * Останавливает потоки подсчёта.
+     */
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    // --- Подсчёт ---
+
+    /**
+     * Считает и печатает число листьев с узлами в секунду, с divide — ещё и по каждому ходу корня.
+     */
+    long run(String text, int depth, boolean divide) throws InterruptedException, ExecutionException {
+        int player = BitBoard.playerFromText(text);
+        BitBoard position = BitBoard.fromText(text);
+        long start = System.nanoTime();
+        long[] counts = divide(position, player, depth);
+        long elapsed = System.nanoTime() - start;
+        long total = 0;
+        MoveList moves = new MoveList();
+        position.generateMoves(player, moves);
+        for (int i = 0; i < counts.length; i++) {
+            if (divide) {
+                System.out.println(notation(moves.toMove(i)) + " " + counts[i]);
+            }
+            total += counts[i];
+        }
+        System.out.println("depth " + depth + ": " + total + " nodes, " + elapsed / 1_000_000 + " ms, "
+                + nodesPerSecond(total, elapsed) + " nodes/s");
+        return total;
+    }
+
+    /**
+     * Число листьев под каждым ходом корня (в порядке генерации). Ходы корня делятся между потоками.
+     */
+    long[] divide(BitBoard position, int player, int depth) throws InterruptedException, ExecutionException {
+        MoveList moves = new MoveList();
+        position.generateMoves(player, moves);
+        long[] counts = new long[moves.size];
+        if (depth == 0) {
+            return counts;
+        }
+        int opponent = opponent(player);
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (int i = 0; i < moves.size; i++) {
+            int move = moves.moves[i];
+            int captured = moves.captured[i];
+            tasks.add(() -> {
+                BitBoard child = new BitBoard(position.black, position.white, position.kings, player);
+                child.makeMove(move, captured);
+                return count(child, opponent, depth - 1, 0, newMoveLists(depth));
+            });
+        }
+        if (executor == null) {
+            for (int i = 0; i < tasks.size(); i++) {
+                try {
+                    counts[i] = tasks.get(i).call();
+                } catch (Exception e) {
+                    throw new ExecutionException(e);
+                }
+            }
+        } else {
+            List<Future<Long>> results = executor.invokeAll(tasks);
+            for (int i = 0; i < results.size(); i++) {
+                counts[i] = results.get(i).get();
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Перебор без объектов: списки ходов по ply, ход и отмена на одной позиции.
+     */
+    private long count(BitBoard position, int player, int depth, int ply, MoveList[] moveLists) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = moveLists[ply];
+        position.generateMoves(player, moves);
+        if (bulk && depth == 1) {
+            return moves.size;
+        }
+        if (hash != null && depth > 1) {
+            long stored = hash.probe(position.key, depth);
+            if (stored >= 0) {
+                return stored;
+            }
+        }
+        int opponent = opponent(player);
+        long nodes = 0;
+        for (int i = 0; i < moves.size; i++) {
+            int move = moves.moves[i];
+            position.makeMove(move, moves.captured[i]);
+            nodes += count(position, opponent, depth - 1, ply + 1, moveLists);
+            position.unmakeMove(move);
+        }
+        if (hash != null && depth > 1) {
+            hash.store(position.key, depth, nodes);
+        }
+        return nodes;
+    }
+
+    /**
+     * Сверяет числа со строками эталонного файла «позиция глубина число» (# — комментарий).
+     * Возвращает true, если совпали все.
+     */
+    boolean check(File reference) throws IOException, InterruptedException, ExecutionException {
+        int failures = 0;
+        int lines = 0;
+        long nodes = 0;
+        long start = System.nanoTime();
+        try (BufferedReader reader = new BufferedReader(new FileReader(reference))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] fields = line.split("\\s+");
+                int depth = Integer.parseInt(fields[1]);
+                long expected = Long.parseLong(fields[2]);
+                long actual = 0;
+                for (long count : divide(BitBoard.fromText(fields[0]), BitBoard.playerFromText(fields[0]), depth)) {
+                    actual += count;
+                }
+                nodes += actual;
+                lines++;
+                if (actual != expected) {
+                    failures++;
+                    System.out.println("FAIL " + fields[0] + " depth " + depth + ": expected " + expected
+                            + ", got " + actual);
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println(lines + " checks, " + failures + " failed, " + nodes + " nodes, "
+                + nodesPerSecond(nodes, elapsed) + " nodes/s");
+        return failures == 0;
+    }
+
+    private static MoveList[] newMoveLists(int depth) {
+        MoveList[] moveLists = new MoveList[depth + 1];
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+        return moveLists;
+    }
+
+    private static long nodesPerSecond(long nodes, long elapsedNanos) {
+        return nodes * 1_000_000_000L / Math.max(1, elapsedNanos);
+    }
+
+    // --- Сверка с живой доской ---
+
+    /**
+     * Обходит дерево до глубины depth и в каждом узле сравнивает ходы BitBoard с цепочками,
+     * собранными из ходов живой доски прыжок за прыжком, а также позиции после каждого хода.
+     * Возвращает true, если расхождений нет.
+     */
+    static boolean verify(String text, int depth) {
+        int[] mismatches = new int[1];
+        long nodes = verify(BitBoard.fromText(text), BitBoard.playerFromText(text), depth, mismatches);
+        System.out.println("verified " + nodes + " nodes, " + mismatches[0] + " mismatches");
+        return mismatches[0] == 0;
+    }
+
+    private static long verify(BitBoard position, int player, int depth, int[] mismatches) {
+        Map<String, String> live = new HashMap<>();
+        int[][] board = position.toBoard();
+        for (Move move : Rules.getAllPossibleMovesOnBoard(board, player)) {
+            collectChains(board, move, notation(move.fromRow, move.fromCol), live);
+        }
+        MoveList moves = new MoveList();
+        position.generateMoves(player, moves);
+        Map<String, String> fast = new HashMap<>();
+        for (int i = 0; i < moves.size; i++) {
+            position.makeMove(moves.moves[i], moves.captured[i]);
+            fast.put(notation(moves.toMove(i)), position.toText(opponent(player)));
+            position.unmakeMove(moves.moves[i]);
+        }
+        if (!live.equals(fast) || live.size() != moves.size) {
+            mismatches[0]++;
+            List<String> liveMoves = new ArrayList<>(live.keySet());
+            List<String> fastMoves = new ArrayList<>(fast.keySet());
+            Collections.sort(liveMoves);
+            Collections.sort(fastMoves);
+            System.out.println("MISMATCH " + position.toText(player) + "\n  live: " + liveMoves
+                    + "\n  bitboard: " + fastMoves);
+        }
+        if (depth <= 1) {
+            return 1;
+        }
+        long nodes = 1;
+        for (int i = 0; i < moves.size; i++) {
+            position.makeMove(moves.moves[i], moves.captured[i]);
+            nodes += verify(position, opponent(player), depth - 1, mismatches);
+            position.unmakeMove(moves.moves[i]);
+        }
+        return nodes;
+    }
+
+    /**
+     * Делает прыжок или ход на копии доски так же, как Rules.play (сбитая фигура снимается сразу,
+     * шашка на последнем ряду становится дамкой), и продолжает цепочку, пока у фигуры есть взятия.
+     */
+    private static void collectChains(int[][] board, Move move, String prefix, Map<String, String> chains) {
+        int[][] next = new int[8][];
+        for (int row = 0; row < 8; row++) {
+            next[row] = board[row].clone();
+        }
+        int piece = next[move.fromRow][move.fromCol];
+        next[move.fromRow][move.fromCol] = Rules.EMPTY;
+        for (int[] captured : move.capturedPieces) {
+            next[captured[0]][captured[1]] = Rules.EMPTY;
+        }
+        if (piece == Rules.BLACK_PIECE && move.toRow == 7) {
+            piece = Rules.BLACK_KING;
+        } else if (piece == Rules.WHITE_PIECE && move.toRow == 0) {
+            piece = Rules.WHITE_KING;
+        }
+        next[move.toRow][move.toCol] = piece;
+        boolean jump = !move.capturedPieces.isEmpty();
+        String chain = prefix + (jump ? ":" : "-") + notation(move.toRow, move.toCol);
+        List<Move> continuations = jump
+                ? Rules.getPossibleJumpsForPieceOnBoard(next, move.toRow, move.toCol)
+                : Collections.<Move>emptyList();
+        if (continuations.isEmpty()) {
+            int player = Rules.ownerOf(piece);
+            chains.put(chain, new BitBoard(next, opponent(player)).toText(opponent(player)));
+            return;
+        }
+        for (Move continuation : continuations) {
+            collectChains(next, continuation, chain, chains);
+        }
+    }
+
+    // --- Запись позиций и ходов ---
+
+    /**
+     * Ход в обычной нотации: c3-d4, цепочка взятий — через двоеточие по всем клеткам приземления.
+     */
+    static String notation(Move move) {
+        StringBuilder text = new StringBuilder(notation(move.fromRow, move.fromCol));
+        if (move.path == null) {
+            return text.append('-').append(notation(move.toRow, move.toCol)).toString();
+        }
+        for (int[] landing : move.path) {
+            text.append(':').append(notation(landing[0], landing[1]));
+        }
+        return text.toString();
+    }
+
+    private static String notation(int row, int col) {
+        return "" + (char) ('a' + col) + (char) ('8' - row);
+    }
+
+    private static int opponent(int player) {
+        return (player == Rules.BLACK_PLAYER) ? Rules.WHITE_PLAYER : Rules.BLACK_PLAYER;
+    }
+
+    /**
+     * Хеш чисел поддеревьев, общий для потоков: запись без блокировок, как в таблице транспозиций
+     * (хранится ключ, сложенный по XOR с данными, так что разорванная запись не пройдёт проверку).
+     * Данные — число листьев и глубина; всегда замещается новой записью.
+     */
+    private static final class Hash {
+
+        private static final int DEPTH_BITS = 8;
+        private static final long DEPTH_MIX = 0x9E3779B97F4A7C15L;
+
+        private final long[] table;
+        private final int mask;
+
+        Hash(int megabytes) {
+            int entries = Integer.highestOneBit((int) Math.min(1L << 29, (long) megabytes * 1024 * 1024 / 16));
+            table = new long[entries * 2];
+            mask = entries - 1;
+        }
+
+        /**
+         * Число листьев позиции key на глубине depth или -1, если его нет.
+         */
+        long probe(long key, int depth) {
+            int index = index(key, depth);
+            long check = table[index];
+            long data = table[index + 1];
+            if ((check ^ data) != key || (data & ((1 << DEPTH_BITS) - 1)) != depth) {
+                return -1;
+            }
+            return data >>> DEPTH_BITS;
+        }
+
+        void store(long key, int depth, long nodes) {
+            int index = index(key, depth);
+            long data = (nodes << DEPTH_BITS) | depth;
+            table[index] = key ^ data;
+            table[index + 1] = data;
+        }
+
+        private int index(long key, int depth) {
+            return (int) ((key ^ depth * DEPTH_MIX) & mask) * 2;
+        }
+    }
+}
@@ -0,0 +1,600 @@
+package com.example.checkers.engine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Матч двух настроек движка друг против друга: проверка того, что изменение поиска или оценки
+ * делает ИИ сильнее, а не только быстрее. Партии идут параллельно, по одной на поток;
+ * каждый дебют играется дважды со сменой цвета.
+ *
+ * Запуск на компьютере разработчика: Tournament настройкаA настройкаB [параметры].
+ * Настройка — список через запятую: depth=N (глубина), ms=N (время на ход, 0 — только глубина),
+ * pruning=on|off (выборочный поиск) и веса оценки по именам {@link EvalWeights#NAMES}, например
+ * depth=8,pruning=off,king=32.
+ * Параметры: -games=N, -threads=N, -hash=МБ (на каждый движок), -seed=N,
+ * -plies=N (длина случайного дебюта), -book=файл (дебюты по книге, дальше случайно),
+ * -openings=файл (позиции в записи {@link BitBoard#fromText}, по одной в строке), -bitbase=файл,
+ * -sprt=elo0,elo1[,alpha,beta] (последовательный тест отношения вероятностей), -nosprt,
+ * -record=файл (позиции всех партий с их исходом для настройки оценки в {@link Tuner}).
+ *
+ * Счёт, разница Elo и тест считаются с точки зрения настройки A. Код выхода: 0 — принята гипотеза H1
+ * (A сильнее B хотя бы на elo1), 1 — принята H0, 2 — тест не пришёл к решению за отведённые партии.
+ */
+final class Tournament {
+
+    private static final int DEFAULT_GAMES = 2000;
+    private static final int DEFAULT_HASH_MB = 16;
+    private static final int DEFAULT_OPENING_PLIES = 6;
+    private static final int MAX_OPENING_ATTEMPTS = 1000;
+
+    // --- Правила окончания партии ---
+    /** Ничья, если столько ply подряд ходят только дамки без взятий (15 ходов каждой стороны). */
+    private static final int KING_MOVES_DRAW_PLIES = 30;
+    private static final int REPETITIONS_FOR_DRAW = 3;
+    /** Партия, не закончившаяся за столько ply, считается ничьей. */
+    private static final int MAX_GAME_PLIES = 300;
+
+    /** Бюджет хода, когда время не ограничено: поиск останавливает только глубина. */
+    private static final long UNLIMITED_MS = TimeUnit.HOURS.toMillis(1);
+
+    // --- Результат партии для стороны A ---
+    static final int LOSS = 0;
+    static final int DRAW = 1;
+    static final int WIN = 2;
+
+    private final Config first;
+    private final Config second;
+    private final int threads;
+    private final int hashMb;
+    private final long seed;
+    private final Bitbase bitbase;
+    private final Sprt sprt;
+    /** Куда записываются позиции партий с результатом (может отсутствовать). */
+    private final Writer record;
+
+    private final AtomicInteger nextPair = new AtomicInteger();
+    private volatile boolean stopped;
+
+    // --- Итоги (под блокировкой this) ---
+    private int wins;
+    private int draws;
+    private int losses;
+    private int verdict = Sprt.CONTINUE;
+
+    Tournament(Config first, Config second, int threads, int hashMb, long seed, Bitbase bitbase, Sprt sprt,
+               Writer record) {
+        this.first = first;
+        this.second = second;
+        this.threads = Math.max(1, threads);
+        this.hashMb = hashMb;
+        this.seed = seed;
+        this.bitbase = bitbase;
+        this.sprt = sprt;
+        this.record = record;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>();
+        int games = DEFAULT_GAMES;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hashMb = DEFAULT_HASH_MB;
+        long seed = System.nanoTime();
+        int plies = DEFAULT_OPENING_PLIES;
+        File book = null;
+        File openingsFile = null;
+        File bitbaseFile = null;
+        File recordFile = null;
+        Sprt sprt = new Sprt(0, 5, 0.05, 0.05);
+        for (String arg : args) {
+            if (arg.startsWith("-games=")) {
+                games = Integer.parseInt(arg.substring("-games=".length()));
+            } else if (arg.startsWith("-threads=")) {
+                threads = Integer.parseInt(arg.substring("-threads=".length()));
+            } else if (arg.startsWith("-hash=")) {
+                hashMb = Integer.parseInt(arg.substring("-hash=".length()));
+            } else if (arg.startsWith("-seed=")) {
+                seed = Long.parseLong(arg.substring("-seed=".length()));
+            } else if (arg.startsWith("-plies=")) {
+                plies = Integer.parseInt(arg.substring("-plies=".length()));
+            } else if (arg.startsWith("-book=")) {
+                book = new File(arg.substring("-book=".length()));
+            } else if (arg.startsWith("-openings=")) {
+                openingsFile = new File(arg.substring("-openings=".length()));
+            } else if (arg.startsWith("-bitbase=")) {
+                bitbaseFile = new File(arg.substring("-bitbase=".length()));
+            } else if (arg.startsWith("-sprt=")) {
+                sprt = Sprt.parse(arg.substring("-sprt=".length()));
+            } else if (arg.startsWith("-record=")) {
+                recordFile = new File(arg.substring("-record=".length()));
+            } else if (arg.equals("-nosprt")) {
+                sprt = null;
+            } else {
+                arguments.add(arg);
+            }
+        }
+        if (arguments.size() != 2) {
+            System.err.println("Usage: Tournament <config A> <config B> [-games=N] [-threads=N] [-hash=MB] [-seed=N]");
+            System.err.println("       [-plies=N] [-book=file] [-openings=file] [-bitbase=file]");
+            System.err.println("       [-sprt=elo0,elo1[,alpha,beta] | -nosprt] [-record=file]");
+            System.err.println("Config: depth=N,ms=N,pruning=on|off,<weight>=N; weights: " + String.join(", ", EvalWeights.NAMES));
+            System.exit(3);
+        }
+        Config first = Config.parse(arguments.get(0));
+        Config second = Config.parse(arguments.get(1));
+
+        List<int[][]> boards = new ArrayList<>();
+        List<Integer> players = new ArrayList<>();
+        Random random = new Random(seed);
+        int pairs = (games + 1) / 2;
+        if (openingsFile != null) {
+            readOpenings(openingsFile, boards, players);
+        } else {
+            OpeningBook openingBook = (book != null) ? OpeningBook.open(book) : null;
+            if (book != null && openingBook == null) {
+                throw new IOException("No opening book " + book);
+            }
+            randomOpenings(pairs, plies, openingBook, random, boards, players);
+        }
+        if (boards.isEmpty()) {
+            throw new IOException("No openings");
+        }
+        Bitbase bitbase = (bitbaseFile != null) ? Bitbase.open(bitbaseFile) : null;
+
+        System.out.println("A: " + first);
+        System.out.println("B: " + second);
+        System.out.println(games + " games, " + boards.size() + " openings, " + threads + " threads, seed " + seed
+                + (sprt != null ? ", " + sprt : ""));
+        int verdict;
+        try (Writer record = (recordFile != null) ? new BufferedWriter(new FileWriter(recordFile)) : null) {
+            Tournament tournament = new Tournament(first, second, threads, hashMb, seed, bitbase, sprt, record);
+            verdict = tournament.run(boards, players, pairs);
+        }
+        System.exit(verdict == Sprt.ACCEPT_H1 ? 0 : verdict == Sprt.ACCEPT_H0 ? 1 : 2);
+    }
+
+    // --- Матч ---
+
+    /**
+     * Играет pairs пар партий (дебюты берутся по кругу) на threads потоках, пока не кончатся пары
+     * или тест не примет решение. Печатает ход матча и итог, возвращает решение теста.
+     */
+    int run(List<int[][]> boards, List<Integer> players, int pairs) throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long workerSeed = seed * 31 + t;
+                results.add(executor.submit(() -> {
+                    playPairs(boards, players, pairs, workerSeed);
+                    return null;
+                }));
+            }
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        synchronized (this) {
+            System.out.println();
+            System.out.println(summary());
+            System.out.println("A: " + first.statistics());
+            System.out.println("B: " + second.statistics());
+            System.out.println("time " + elapsed / 1_000_000_000 + " s, "
+                    + (sprt == null ? "no SPRT" : Sprt.describe(verdict)));
+            return verdict;
+        }
+    }
+
+    /**
+     * Цикл одного потока: свои движки для A и B, пары партий по очереди из общего счётчика.
+     */
+    private void playPairs(List<int[][]> boards, List<Integer> players, int pairs, long workerSeed) {
+        Random random = new Random(workerSeed);
+        Searcher engineA = first.newSearcher(hashMb, random, bitbase);
+        Searcher engineB = second.newSearcher(hashMb, random, bitbase);
+        try {
+            int pair;
+            while (!stopped && (pair = nextPair.getAndIncrement()) < pairs) {
+                int[][] board = boards.get(pair % boards.size());
+                int player = players.get(pair % boards.size());
+                // В первой партии пары настройка A играет белыми, во второй — чёрными.
+                for (int colorA = Rules.WHITE_PLAYER; colorA >= Rules.BLACK_PLAYER; colorA--) {
+                    List<String> visited = (record != null) ? new ArrayList<>() : null;
+                    int result = playGame(board, player, engineA, first, engineB, second, colorA, visited);
+                    addResult(result);
+                    if (visited != null) {
+                        writePositions(visited, result, colorA);
+                    }
+                }
+            }
+        } finally {
+            engineA.close();
+            engineB.close();
+        }
+    }
+
+    /**
+     * Играет партию от позиции board с ходом player; настройка A играет цветом colorA.
+     * Возвращает результат для A: {@link #WIN}, {@link #DRAW} или {@link #LOSS}.
+     * Если задан список visited, в него записываются все позиции партии в текстовой записи.
+     */
+    static int playGame(int[][] board, int player, Searcher engineA, Config configA,
+                        Searcher engineB, Config configB, int colorA, List<String> visited) {
+        engineA.newGame();
+        engineB.newGame();
+        Map<Long, Integer> repetitions = new HashMap<>();
+        int kingMovePlies = 0;
+        for (int ply = 0; ply < MAX_GAME_PLIES; ply++) {
+            BitBoard position = new BitBoard(board, player);
+            if (visited != null) {
+                visited.add(position.toText(player));
+            }
+            if (repetitions.merge(position.key, 1, Integer::sum) >= REPETITIONS_FOR_DRAW
+                    || kingMovePlies >= KING_MOVES_DRAW_PLIES) {
+                return DRAW;
+            }
+            List<Move> moves = new ArrayList<>();
+            position.generateMoves(player, moves);
+            if (moves.isEmpty()) {
+                return (player == colorA) ? LOSS : WIN;
+            }
+            boolean sideA = (player == colorA);
+            Move move = think(sideA ? engineA : engineB, sideA ? configA : configB, position, player, moves);
+            int piece = board[move.fromRow][move.fromCol];
+            boolean kingMove = move.capturedPieces.isEmpty() && (piece == Rules.BLACK_KING || piece == Rules.WHITE_KING);
+            kingMovePlies = kingMove ? kingMovePlies + 1 : 0;
+            board = Rules.play(board, move);
+            player = Rules.opponent(player);
+        }
+        return DRAW;
+    }
+
+    /**
+     * Ход движка с учётом узлов и времени в статистике настройки. Единственный ход делается без поиска.
+     */
+    private static Move think(Searcher engine, Config config, BitBoard position, int player, List<Move> moves) {
+        if (moves.size() == 1) {
+            return moves.get(0);
+        }
+        long start = System.nanoTime();
+        Move move = engine.search(position, player, moves, config.depth,
+                (config.moveMs > 0) ? config.moveMs : UNLIMITED_MS);
+        config.addSearch(engine.getNodes(), System.nanoTime() - start);
+        return (move != null) ? move : moves.get(0);
+    }
+
+    /**
+     * Учитывает результат партии, время от времени печатает ход матча и останавливает его по решению теста.
+     */
+    private synchronized void addResult(int result) {
+        if (result == WIN) {
+            wins++;
+        } else if (result == DRAW) {
+            draws++;
+        } else {
+            losses++;
+        }
+        boolean decided = false;
+        if (sprt != null && verdict == Sprt.CONTINUE) {
+            verdict = sprt.test(wins, draws, losses);
+            decided = (verdict != Sprt.CONTINUE);
+            stopped |= decided;
+        }
+        if ((wins + draws + losses) % 100 == 0 || decided) {
+            System.out.println(summary());
+        }
+    }
+
+    /**
+     * Дописывает позиции партии в файл записи, каждую с итогом партии для белых: 1, 0.5 или 0.
+     */
+    private void writePositions(List<String> visited, int result, int colorA) {
+        int whiteHalves = (colorA == Rules.WHITE_PLAYER) ? result : WIN - result;
+        String outcome = (whiteHalves == WIN) ? " 1" : (whiteHalves == DRAW) ? " 0.5" : " 0";
+        synchronized (record) {
+            try {
+                for (String position : visited) {
+                    record.write(position);
+                    record.write(outcome);
+                    record.write('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Строка счёта: партии, +побед -поражений =ничьих, доля очков, разница Elo с 95% интервалом и LLR теста.
+     */
+    private String summary() {
+        int games = wins + draws + losses;
+        StringBuilder text = new StringBuilder();
+        text.append("games ").append(games).append(": +").append(wins).append(" -").append(losses)
+                .append(" =").append(draws);
+        if (games > 0) {
+            double score = (wins + 0.5 * draws) / games;
+            text.append(String.format(" score %.1f%%", 100 * score));
+            text.append(String.format(" elo %.1f +/- %.1f", Elo.difference(score), Elo.errorMargin(wins, draws, losses)));
+        }
+        if (sprt != null) {
+            text.append(String.format(" LLR %.2f [%.2f, %.2f]", sprt.llr(wins, draws, losses),
+                    sprt.lowerBound(), sprt.upperBound()));
+        }
+        return text.toString();
+    }
+
+    // --- Дебюты ---
+
+    /**
+     * Строит count разных дебютов: plies ходов от начальной позиции, по книге, пока позиция в ней есть,
+     * иначе случайных. Позиции без ходов и повторы отбрасываются.
+     */
+    static void randomOpenings(int count, int plies, OpeningBook book, Random random,
+                               List<int[][]> boards, List<Integer> players) {
+        Set<Long> seen = new HashSet<>();
+        for (int attempt = 0; boards.size() < count && attempt < count + MAX_OPENING_ATTEMPTS; attempt++) {
+            BitBoard start = BitBoard.fromText(BitBoard.START_TEXT);
+            int[][] board = start.toBoard();
+            int player = Rules.WHITE_PLAYER;
+            for (int ply = 0; ply < plies; ply++) {
+                List<Move> moves = Rules.legalMoves(board, player);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                Move move = (book != null) ? book.choose(board, player, moves, random) : null;
+                if (move == null) {
+                    move = moves.get(random.nextInt(moves.size()));
+                }
+                board = Rules.play(board, move);
+                player = Rules.opponent(player);
+            }
+            if (!Rules.legalMoves(board, player).isEmpty() && seen.add(new BitBoard(board, player).key)) {
+                boards.add(board);
+                players.add(player);
+            }
+        }
+    }
+
+    /**
+     * Читает дебюты из файла: по позиции в записи {@link BitBoard#fromText} в строке; пустые строки и строки с # пропускаются.
+     */
+    static void readOpenings(File file, List<int[][]> boards, List<Integer> players) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                boards.add(BitBoard.fromText(line).toBoard());
+                players.add(BitBoard.playerFromText(line));
+            }
+        }
+    }
+
+    // --- Настройка движка ---
+
+    /**
+     * Настройка одного участника матча и его статистика поиска по всем партиям.
+     */
+    static final class Config {
+        private final String text;
+        int depth = 8;
+        long moveMs;
+        PruningSettings pruning = new PruningSettings();
+        EvalWeights weights = new EvalWeights();
+
+        // --- Статистика (под блокировкой настройки) ---
+        private long searches;
+        private long nodes;
+        private long nanos;
+
+        private Config(String text) {
+            this.text = text;
+        }
+
+        /**
+         * Разбирает настройку вида depth=8,ms=0,pruning=off,king=32.
+         */
+        static Config parse(String text) {
+            Config config = new Config(text);
+            for (String item : text.split(",")) {
+                int separator = item.indexOf('=');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Bad config item " + item);
+                }
+                String name = item.substring(0, separator);
+                String value = item.substring(separator + 1);
+                if (name.equals("depth")) {
+                    config.depth = Math.min(Integer.parseInt(value), Searcher.MAX_DEPTH);
+                } else if (name.equals("ms")) {
+                    config.moveMs = Long.parseLong(value);
+                } else if (name.equals("pruning")) {
+                    config.pruning = value.equals("off") ? PruningSettings.disabled() : new PruningSettings();
+                } else if (EvalWeights.indexOf(name) >= 0) {
+                    config.weights.set(EvalWeights.indexOf(name), Integer.parseInt(value));
+                } else {
+                    throw new IllegalArgumentException("Unknown config item " + name);
+                }
+            }
+            return config;
+        }
+
+        Searcher newSearcher(int hashMb, Random random, Bitbase bitbase) {
+            Searcher searcher = new Searcher(hashMb, 1, Searcher.MODE_ROOT_SPLIT, random, bitbase);
+            searcher.setPruning(pruning);
+            searcher.setEvalWeights(weights);
+            return searcher;
+        }
+
+        synchronized void addSearch(long searchNodes, long searchNanos) {
+            searches++;
+            nodes += searchNodes;
+            nanos += searchNanos;
+        }
+
+        /**
+         * Средние узлы в секунду и время на ход по всем поискам настройки.
+         */
+        synchronized String statistics() {
+            long nodesPerSecond = (nanos > 0) ? (long) (nodes * 1e9 / nanos) : 0;
+            double msPerMove = (searches > 0) ? nanos / 1e6 / searches : 0;
+            return String.format("%d searches, %d nodes/s, %.1f ms/move", searches, nodesPerSecond, msPerMove);
+        }
+
+        @Override
+        public String toString() {
+            return text + " (" + weights + ")";
+        }
+    }
+
+    // --- Elo и последовательный тест ---
+
+    /**
+     * Разница Elo по доле очков и её 95% доверительный интервал по дисперсии результатов партий.
+     */
+    static final class Elo {
+
+        private Elo() {
+        }
+
+        /**
+         * Разница Elo, при которой ожидаемая доля очков равна score (логистическая модель).
+         */
+        static double difference(double score) {
+            double clamped = Math.min(Math.max(score, 1e-6), 1 - 1e-6);
+            return -400 * Math.log10(1 / clamped - 1);
+        }
+
+        /**
+         * Полуширина 95% интервала для разницы Elo.
+         */
+        static double errorMargin(int wins, int draws, int losses) {
+            int games = wins + draws + losses;
+            double score = (wins + 0.5 * draws) / games;
+            double deviation = Math.sqrt(variance(wins, draws, losses) / games);
+            return (difference(score + 1.96 * deviation) - difference(score - 1.96 * deviation)) / 2;
+        }
+
+        /**
+         * Дисперсия очков одной партии (1, 0.5, 0).
+         */
+        static double variance(int wins, int draws, int losses) {
+            int games = wins + draws + losses;
+            double score = (wins + 0.5 * draws) / games;
+            return (wins * (1 - score) * (1 - score) + draws * (0.5 - score) * (0.5 - score)
+                    + losses * score * score) / games;
+        }
+    }
+
+    /**
+     * Последовательный тест отношения вероятностей: H0 — разница Elo равна elo0, H1 — равна elo1.
+     * Логарифм отношения правдоподобий считается в нормальном приближении по дисперсии результатов партий;
+     * тест останавливается, когда он выходит за границы, заданные ошибками alpha и beta.
+     */
+    static final class Sprt {
+        static final int CONTINUE = 0;
+        static final int ACCEPT_H0 = 1;
+        static final int ACCEPT_H1 = 2;
+
+        private final double elo0;
+        private final double elo1;
+        private final double alpha;
+        private final double beta;
+
+        Sprt(double elo0, double elo1, double alpha, double beta) {
+            this.elo0 = elo0;
+            this.elo1 = elo1;
+            this.alpha = alpha;
+            this.beta = beta;
+        }
+
+        /**
+         * Разбирает elo0,elo1[,alpha,beta]; по умолчанию alpha и beta равны 0.05.
+         */
+        static Sprt parse(String text) {
+            String[] parts = text.split(",");
+            if (parts.length != 2 && parts.length != 4) {
+                throw new IllegalArgumentException("Bad SPRT " + text);
+            }
+            double alpha = (parts.length == 4) ? Double.parseDouble(parts[2]) : 0.05;
+            double beta = (parts.length == 4) ? Double.parseDouble(parts[3]) : 0.05;
+            return new Sprt(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), alpha, beta);
+        }
+
+        double lowerBound() {
+            return Math.log(beta / (1 - alpha));
+        }
+
+        double upperBound() {
+            return Math.log((1 - beta) / alpha);
+        }
+
+        double llr(int wins, int draws, int losses) {
+            int games = wins + draws + losses;
+            if (games == 0) {
+                return 0;
+            }
+            double variance = Elo.variance(wins, draws, losses);
+            if (variance == 0) {
+                return 0;
+            }
+            double score = (wins + 0.5 * draws) / games;
+            double score0 = expectedScore(elo0);
+            double score1 = expectedScore(elo1);
+            return games * (score1 - score0) * (2 * score - score0 - score1) / (2 * variance);
+        }
+
+        int test(int wins, int draws, int losses) {
+            double llr = llr(wins, draws, losses);
+            if (llr >= upperBound()) {
+                return ACCEPT_H1;
+            }
+            if (llr <= lowerBound()) {
+                return ACCEPT_H0;
+            }
+            return CONTINUE;
+        }
+
+        private static double expectedScore(double elo) {
+            return 1 / (1 + Math.pow(10, -elo / 400));
+        }
+
+        static String describe(int verdict) {
+            switch (verdict) {
+                case ACCEPT_H1: return "SPRT: H1 accepted";
+                case ACCEPT_H0: return "SPRT: H0 accepted";
+                default: return "SPRT: inconclusive";
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("SPRT elo0=%.1f elo1=%.1f alpha=%.2f beta=%.2f", elo0, elo1, alpha, beta);
+        }
+    }
+}
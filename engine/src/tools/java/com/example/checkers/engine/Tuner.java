@@ -0,0 +1,265 @@
+package com.example.checkers.engine;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Настройка весов оценки по методу Texel: веса подбираются так, чтобы оценка позиции, пропущенная через
+ * логистическую кривую, как можно точнее предсказывала исход партии (1 — выиграли белые, 0.5 — ничья, 0 — чёрные).
+ * Ошибка — средний квадрат разности между предсказанием и исходом по всем позициям.
+ *
+ * Оценка линейна по весам ({@link SearchWorker#evaluationTerms}), поэтому при загрузке каждая позиция сразу
+ * раскладывается на члены оценки и дальше хранится только ими: short на член и byte на исход — миллионы позиций
+ * помещаются в плоские массивы, а ошибка считается скалярными произведениями, поделёнными между потоками.
+ * Позиции, где у стороны, чей ход, есть взятие, пропускаются: статическая оценка в них не имеет смысла.
+ *
+ * Запуск на компьютере разработчика: Tuner файл... [параметры]. Файлы — строки «позиция исход», где позиция
+ * записана как в {@link BitBoard#fromText}, например файл -record из {@link Tournament} или перевод сыгранных партий.
+ * Параметры: -threads=N, -passes=N (наибольшее число проходов поиска), -fix=имя=значение,... (вес задаётся
+ * и не настраивается; так можно выключить дорогой член и подогнать остальные под его отсутствие).
+ *
+ * Сначала подбирается масштаб K логистической кривой при текущих весах, затем локальный поиск: каждый вес
+ * по очереди сдвигается на ±1, сдвиг остаётся, если ошибка уменьшилась, — пока проход не перестанет её улучшать.
+ * Шашка не настраивается: её вес задаёт шкалу оценки, остальное подстраивает K.
+ * Итог печатается в виде настройки для {@link Tournament}, чтобы сразу проверить его матчем.
+ */
+final class Tuner {
+
+    private static final int TERMS = EvalWeights.NAMES.length;
+    private static final int DEFAULT_PASSES = 100;
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    // --- Подбор масштаба K ---
+    private static final double MAX_SCALE = 1.0;
+    private static final int SCALE_ITERATIONS = 40;
+
+    // --- Позиции: члены оценки для белых (по TERMS на позицию) и исход в половинах очка для белых ---
+    private short[] terms = new short[INITIAL_CAPACITY * TERMS];
+    private byte[] results = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    private final int threads;
+    private final ExecutorService executor;
+
+    Tuner(int threads) {
+        this.threads = Math.max(1, threads);
+        this.executor = Executors.newFixedThreadPool(this.threads);
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> files = new ArrayList<>();
+        int threads = Runtime.getRuntime().availableProcessors();
+        int passes = DEFAULT_PASSES;
+        EvalWeights weights = new EvalWeights();
+        boolean[] fixed = new boolean[TERMS];
+        fixed[EvalWeights.indexOf("man")] = true;
+        for (String arg : args) {
+            if (arg.startsWith("-threads=")) {
+                threads = Integer.parseInt(arg.substring("-threads=".length()));
+            } else if (arg.startsWith("-passes=")) {
+                passes = Integer.parseInt(arg.substring("-passes=".length()));
+            } else if (arg.startsWith("-fix=")) {
+                for (String item : arg.substring("-fix=".length()).split(",")) {
+                    int separator = item.indexOf('=');
+                    int index = EvalWeights.indexOf(item.substring(0, Math.max(separator, 0)));
+                    if (index < 0) {
+                        throw new IllegalArgumentException("Bad fixed weight " + item);
+                    }
+                    weights.set(index, Integer.parseInt(item.substring(separator + 1)));
+                    fixed[index] = true;
+                }
+            } else {
+                files.add(arg);
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("Usage: Tuner <positions file>... [-threads=N] [-passes=N] [-fix=name=value,...]");
+            System.err.println("Weights: " + String.join(", ", EvalWeights.NAMES));
+            System.exit(1);
+        }
+        Tuner tuner = new Tuner(threads);
+        try {
+            long start = System.nanoTime();
+            for (String file : files) {
+                tuner.load(new File(file));
+            }
+            System.out.println(tuner.size + " quiet positions, loaded in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            double scale = tuner.fitScale(weights);
+            System.out.println(String.format("K %.5f, error %.6f with %s", scale, tuner.error(weights, scale), weights));
+            tuner.tune(weights, fixed, scale, passes);
+            System.out.println("tuned: " + weights);
+        } finally {
+            tuner.executor.shutdownNow();
+        }
+    }
+
+    // --- Загрузка ---
+
+    /**
+     * Читает позиции с исходами из файла и добавляет тихие из них к набору.
+     */
+    void load(File file) throws IOException {
+        SearchWorker evaluator = new SearchWorker(null, null);
+        MoveList moves = new MoveList();
+        int[] positionTerms = new int[TERMS];
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int separator = line.indexOf(' ');
+                if (separator < 0) {
+                    throw new IOException(file + ":" + lineNumber + ": no result");
+                }
+                String text = line.substring(0, separator);
+                BitBoard position = BitBoard.fromText(text);
+                int player = BitBoard.playerFromText(text);
+                moves.clear();
+                if (position.generateMoves(player, moves)) {
+                    continue;
+                }
+                evaluator.evaluationTerms(position, Rules.WHITE_PLAYER, positionTerms);
+                add(positionTerms, parseResult(line.substring(separator + 1).trim(), file, lineNumber));
+            }
+        }
+    }
+
+    /**
+     * Исход для белых в половинах очка: 1, 1-0 — 2; 0.5, 1/2-1/2 — 1; 0, 0-1 — 0.
+     */
+    private static int parseResult(String text, File file, int lineNumber) throws IOException {
+        switch (text) {
+            case "1": case "1.0": case "1-0": return 2;
+            case "0.5": case "1/2-1/2": return 1;
+            case "0": case "0.0": case "0-1": return 0;
+            default: throw new IOException(file + ":" + lineNumber + ": bad result " + text);
+        }
+    }
+
+    private void add(int[] positionTerms, int result) {
+        if (size == results.length) {
+            results = Arrays.copyOf(results, size * 2);
+            terms = Arrays.copyOf(terms, size * 2 * TERMS);
+        }
+        for (int i = 0; i < TERMS; i++) {
+            terms[size * TERMS + i] = (short) positionTerms[i];
+        }
+        results[size] = (byte) result;
+        size++;
+    }
+
+    // --- Ошибка ---
+
+    /**
+     * Средний квадрат ошибки предсказания исхода при весах weights и масштабе scale.
+     * Позиции делятся на равные части между потоками.
+     */
+    double error(EvalWeights weights, double scale) throws InterruptedException, ExecutionException {
+        int[] w = new int[TERMS];
+        for (int i = 0; i < TERMS; i++) {
+            w[i] = weights.get(i);
+        }
+        List<Callable<Double>> tasks = new ArrayList<>();
+        int chunk = (size + threads - 1) / threads;
+        for (int from = 0; from < size; from += chunk) {
+            int start = from;
+            int end = Math.min(size, from + chunk);
+            tasks.add(() -> squaredError(w, scale, start, end));
+        }
+        double total = 0;
+        for (Future<Double> part : executor.invokeAll(tasks)) {
+            total += part.get();
+        }
+        return (size > 0) ? total / size : 0;
+    }
+
+    private double squaredError(int[] w, double scale, int start, int end) {
+        double total = 0;
+        for (int p = start; p < end; p++) {
+            int offset = p * TERMS;
+            int eval = 0;
+            for (int i = 0; i < TERMS; i++) {
+                eval += w[i] * terms[offset + i];
+            }
+            double predicted = 1 / (1 + Math.exp(-scale * eval));
+            double difference = results[p] * 0.5 - predicted;
+            total += difference * difference;
+        }
+        return total;
+    }
+
+    // --- Подбор ---
+
+    /**
+     * Масштаб логистической кривой с наименьшей ошибкой при весах weights (поиск золотым сечением).
+     */
+    double fitScale(EvalWeights weights) throws InterruptedException, ExecutionException {
+        double ratio = (Math.sqrt(5) - 1) / 2;
+        double low = 0;
+        double high = MAX_SCALE;
+        double left = high - ratio * (high - low);
+        double right = low + ratio * (high - low);
+        double leftError = error(weights, left);
+        double rightError = error(weights, right);
+        for (int i = 0; i < SCALE_ITERATIONS; i++) {
+            if (leftError < rightError) {
+                high = right;
+                right = left;
+                rightError = leftError;
+                left = high - ratio * (high - low);
+                leftError = error(weights, left);
+            } else {
+                low = left;
+                left = right;
+                leftError = rightError;
+                right = low + ratio * (high - low);
+                rightError = error(weights, right);
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    /**
+     * Локальный поиск: сдвигает незакреплённые веса на ±1, пока проход улучшает ошибку, но не больше passes проходов.
+     * Печатает ошибку и веса после каждого прохода.
+     */
+    void tune(EvalWeights weights, boolean[] fixed, double scale, int passes)
+            throws InterruptedException, ExecutionException {
+        double best = error(weights, scale);
+        for (int pass = 1; pass <= passes; pass++) {
+            boolean improved = false;
+            for (int i = 0; i < TERMS; i++) {
+                if (fixed[i]) continue;
+                int value = weights.get(i);
+                for (int step : new int[]{1, -1}) {
+                    weights.set(i, value + step);
+                    double error = error(weights, scale);
+                    if (error < best) {
+                        best = error;
+                        improved = true;
+                        break;
+                    }
+                    weights.set(i, value);
+                }
+            }
+            System.out.println(String.format("pass %d: error %.6f, %s", pass, best, weights));
+            if (!improved) {
+                break;
+            }
+        }
+    }
+}
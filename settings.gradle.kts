@@ -21,3 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "Checkers"
 include(":app")
+include(":engine")
+include(":benchmark")